@@ -0,0 +1,108 @@
+package guru.sfg.brewery.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks, per thread, how long pooled connections are held: from getConnection() to close(), which hands the
+ * connection back to the pool. Read with {@link #heldNanos()} and {@link #openConnections()} - like
+ * QueryCountInspector only the difference between two reads of heldNanos is meaningful.
+ *
+ * A connection closed on another thread than the one that took it still counts against the thread that took it.
+ */
+public class ConnectionHoldDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    // [0] nanos held by connections closed so far, [1] connections open, [2] when the oldest open one was taken;
+    // guarded by the array itself, as a connection may be closed on another thread
+    private static final ThreadLocal<long[]> HOLD = ThreadLocal.withInitial(() -> new long[3]);
+
+    public ConnectionHoldDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * @return nanos connections were held on this thread so far, the ones still open counted up to now
+     */
+    public static long heldNanos() {
+        long[] hold = HOLD.get();
+        synchronized (hold) {
+            return hold[1] > 0 ? hold[0] + System.nanoTime() - hold[2] : hold[0];
+        }
+    }
+
+    public static long openConnections() {
+        long[] hold = HOLD.get();
+        synchronized (hold) {
+            return hold[1];
+        }
+    }
+
+    // the container closes the pool through the wrapper it now holds
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // nested connections on one thread are timed as one hold, from the first taken to the last closed
+    private Connection track(Connection connection) {
+        long[] hold = HOLD.get();
+        synchronized (hold) {
+            if (hold[1]++ == 0) {
+                hold[2] = System.nanoTime();
+            }
+        }
+
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        // the proxy is the connection callers hold, so it is equal to itself only
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            // close may race from two threads, only the first releases the hold
+                            if (closed.compareAndSet(false, true)) {
+                                release(hold);
+                            }
+                            break;
+                        default:
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    // against the counters of the thread that took the connection, whichever thread closes it
+    private static void release(long[] hold) {
+        synchronized (hold) {
+            if (--hold[1] == 0) {
+                hold[0] += System.nanoTime() - hold[2];
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package guru.sfg.brewery.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per request, how long the request held database connections (see {@link ConnectionHoldDataSource}) as
+ * the http.connection.hold timer, tagged with the handler's uri pattern and the phase: handler up to the controller
+ * returning, render for the view rendering after it. Without open-session-in-view render should stay at zero;
+ * http.connection.open.at.render counts the requests still holding a connection when rendering starts.
+ *
+ * For {@code @ResponseBody} and {@code ResponseEntity} handlers the body is written by the handler adapter before
+ * postHandle runs, so their serialization, and any lazy loading it triggers, is counted as handler time and render
+ * is about zero. Only view rendering is split out as render.
+ */
+@RequiredArgsConstructor
+public class ConnectionHoldInterceptor implements HandlerInterceptor {
+
+    private static final String HELD_AT_START = ConnectionHoldInterceptor.class.getName() + ".start";
+    private static final String HELD_AT_RENDER = ConnectionHoldInterceptor.class.getName() + ".render";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(HELD_AT_START, ConnectionHoldDataSource.heldNanos());
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        long held = ConnectionHoldDataSource.heldNanos();
+        request.setAttribute(HELD_AT_RENDER, held);
+
+        record(request, "handler", held - (long) request.getAttribute(HELD_AT_START));
+
+        if (ConnectionHoldDataSource.openConnections() > 0) {
+            meterRegistry.counter("http.connection.open.at.render", "uri", uri(request)).increment();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(HELD_AT_START);
+        Object render = request.getAttribute(HELD_AT_RENDER);
+
+        if (start == null) {
+            return;
+        }
+
+        long held = ConnectionHoldDataSource.heldNanos();
+
+        if (render == null) {
+            // the handler threw, nothing was rendered
+            record(request, "handler", held - (long) start);
+        } else {
+            record(request, "render", held - (long) render);
+        }
+    }
+
+    private void record(HttpServletRequest request, String phase, long nanos) {
+        meterRegistry.timer("http.connection.hold", "uri", uri(request), "phase", phase)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
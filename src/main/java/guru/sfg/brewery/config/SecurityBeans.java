@@ -3,12 +3,16 @@ package guru.sfg.brewery.config;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
 import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import com.warrenstrange.googleauth.ICredentialRepository;
+import guru.sfg.brewery.security.CachingDaoAuthenticationProvider;
 import guru.sfg.brewery.security.SfgPasswordEncoderFactories;
+import guru.sfg.brewery.security.VerifiedCredentialCache;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
@@ -29,6 +33,16 @@ public class SecurityBeans {
         return SfgPasswordEncoderFactories.createDelegatingPasswordEncoder();
     }
 
+    // picked up by the global AuthenticationManager in place of the default DaoAuthenticationProvider
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                                            VerifiedCredentialCache verifiedCredentialCache) {
+        DaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(verifiedCredentialCache);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
     @Bean
     public GoogleAuthenticator googleAuthenticator(ICredentialRepository credentialRepository) {
         GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder configBuilder
@@ -1,13 +1,19 @@
 package guru.sfg.brewery.config;
 
+import guru.sfg.brewery.security.LoginFailureCounter;
+import guru.sfg.brewery.security.PermissionSetMethodSecurityExpressionHandler;
 import guru.sfg.brewery.security.RestHeaderAuthFilter;
 import guru.sfg.brewery.security.RestUrlAuthFilter;
+import guru.sfg.brewery.security.SourceIpThrottleFilter;
 import guru.sfg.brewery.security.google.Google2faFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
@@ -21,12 +27,12 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 @RequiredArgsConstructor
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final UserDetailsService userDetailsService;
     private final PersistentTokenRepository persistentTokenRepository;
     private final Google2faFilter google2faFilter;
+    private final LoginFailureCounter loginFailureCounter;
 
     // needed for use with Spring Data JPA SPeL
     @Bean
@@ -64,6 +70,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http.addFilterBefore(google2faFilter, SessionManagementFilter.class);
 
+        // ahead of every filter that checks credentials
+        http.addFilterBefore(new SourceIpThrottleFilter(loginFailureCounter), UsernamePasswordAuthenticationFilter.class);
+
         http.addFilterBefore(restHeaderAuthFilter(authenticationManager()), UsernamePasswordAuthenticationFilter.class);
                 //.csrf().disable();
 
@@ -145,4 +154,24 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 //
 //        return new InMemoryUserDetailsManager(admin, user);
 //    }
+
+    /**
+     * {@code @PreAuthorize} authority checks test the principal's permission bits, see
+     * {@link PermissionSetMethodSecurityExpressionHandler}.
+     */
+    @RequiredArgsConstructor
+    @Configuration
+    @EnableGlobalMethodSecurity(prePostEnabled = true)
+    static class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+        private final ApplicationContext applicationContext;
+
+        @Override
+        protected MethodSecurityExpressionHandler createExpressionHandler() {
+            PermissionSetMethodSecurityExpressionHandler expressionHandler = new PermissionSetMethodSecurityExpressionHandler();
+            // so expressions can still reference beans, e.g. @beerOrderAuthenticationManager
+            expressionHandler.setApplicationContext(applicationContext);
+            return expressionHandler;
+        }
+    }
 }
@@ -1,18 +1,167 @@
 package guru.sfg.brewery.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code @Async} work runs on a bounded pool (or virtual threads when the JDK has them) and {@code @Scheduled} jobs
+ * on their own small scheduler pool. Both export executor.* gauges and an executor.rejected counter tagged with
+ * the executor name.
+ */
+@Slf4j
 @EnableScheduling
 @EnableAsync
 @Configuration
 public class TaskConfig {
+
+    public enum ExecutorMode {
+        POOL, VIRTUAL
+    }
+
+    public enum RejectionPolicy {
+        CALLER_RUNS, ABORT, DISCARD
+    }
+
+    @Bean
+    TaskExecutor taskExecutor(MeterRegistry meterRegistry,
+                              @Value("${sfg.task.executor.mode:POOL}") ExecutorMode mode,
+                              @Value("${sfg.task.executor.core-size:8}") int coreSize,
+                              @Value("${sfg.task.executor.max-size:32}") int maxSize,
+                              @Value("${sfg.task.executor.queue-capacity:500}") int queueCapacity,
+                              @Value("${sfg.task.executor.rejection-policy:CALLER_RUNS}") RejectionPolicy rejectionPolicy) {
+        Counter rejected = meterRegistry.counter("executor.rejected", "name", "taskExecutor");
+
+        if (mode == ExecutorMode.VIRTUAL) {
+            Optional<ExecutorService> virtualThreads = newVirtualThreadPerTaskExecutor();
+
+            if (virtualThreads.isPresent()) {
+                log.debug("Using virtual thread per task executor");
+                VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor(virtualThreads.get(), rejected);
+
+                Gauge.builder("executor.active", executor, VirtualThreadTaskExecutor::getActiveCount)
+                        .tag("name", "taskExecutor").register(meterRegistry);
+                return executor;
+            }
+
+            log.warn("Virtual threads are not available on this JDK, using a bounded pool");
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("task-");
+        executor.setRejectedExecutionHandler(counting(rejectionHandler(rejectionPolicy), rejected));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", "taskExecutor").register(meterRegistry);
+        Gauge.builder("executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("name", "taskExecutor").register(meterRegistry);
+        Gauge.builder("executor.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("name", "taskExecutor").register(meterRegistry);
+
+        return executor;
+    }
+
     @Bean
-    TaskExecutor taskExecutor() {
-        return new SimpleAsyncTaskExecutor();
+    ThreadPoolTaskScheduler taskScheduler(MeterRegistry meterRegistry,
+                                          @Value("${sfg.task.scheduler.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setRejectedExecutionHandler(counting(new ThreadPoolExecutor.AbortPolicy(),
+                meterRegistry.counter("executor.rejected", "name", "taskScheduler")));
+
+        Gauge.builder("executor.active", scheduler, ThreadPoolTaskScheduler::getActiveCount)
+                .tag("name", "taskScheduler").register(meterRegistry);
+        Gauge.builder("executor.queued", scheduler, s -> s.getScheduledThreadPoolExecutor().getQueue().size())
+                .tag("name", "taskScheduler").register(meterRegistry);
+
+        return scheduler;
+    }
+
+    private RejectedExecutionHandler rejectionHandler(RejectionPolicy rejectionPolicy) {
+        switch (rejectionPolicy) {
+            case ABORT:
+                return new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            default:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+    }
+
+    private RejectedExecutionHandler counting(RejectedExecutionHandler delegate, Counter rejected) {
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() only exists on JDK 21+, we compile for 11
+    private Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    static class VirtualThreadTaskExecutor implements TaskExecutor, DisposableBean {
+        private final ExecutorService executorService;
+        private final Counter rejected;
+        private final AtomicInteger activeCount = new AtomicInteger();
+
+        VirtualThreadTaskExecutor(ExecutorService executorService, Counter rejected) {
+            this.executorService = executorService;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            try {
+                executorService.execute(() -> {
+                    activeCount.incrementAndGet();
+                    try {
+                        task.run();
+                    } finally {
+                        activeCount.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+        }
+
+        int getActiveCount() {
+            return activeCount.get();
+        }
+
+        @Override
+        public void destroy() {
+            executorService.shutdown();
+        }
     }
 }
@@ -1,12 +1,47 @@
 package guru.sfg.brewery.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import javax.sql.DataSource;
+
+/**
+ * Besides CORS, times how long each request holds database connections (see {@link ConnectionHoldInterceptor}).
+ * Open-session-in-view is off (spring.jpa.open-in-view), so a connection is only held while a repository or
+ * transactional service call runs - never while a view renders.
+ */
+@RequiredArgsConstructor
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // not there in @WebMvcTest slices
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    // static, as a BeanPostProcessor has to be created before the other beans
+    @Bean
+    static BeanPostProcessor connectionHoldDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && !(bean instanceof ConnectionHoldDataSource)
+                        ? new ConnectionHoldDataSource((DataSource) bean)
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new ConnectionHoldInterceptor(meters)));
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**").allowedMethods("GET", "POST", "PUT");
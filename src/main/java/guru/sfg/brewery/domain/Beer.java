@@ -16,17 +16,20 @@
  */
 package guru.sfg.brewery.domain;
 
+import guru.sfg.brewery.services.BeerCatalogChangeListener;
+import guru.sfg.brewery.services.NameIndexListener;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
@@ -41,8 +44,15 @@ import java.util.UUID;
 @Setter
 @Entity
 @NoArgsConstructor
+@EntityListeners({BeerCatalogChangeListener.class, NameIndexListener.class})
+@NamedEntityGraph(name = Beer.BEER_DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("beerInventory"))
 public class Beer extends BaseEntity {
 
+    /**
+     * One beer with its inventory rows, as the beer details page lists them.
+     */
+    public static final String BEER_DETAIL_GRAPH = "Beer.detail";
+
     @Builder
     public Beer(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String beerName,
                 BeerStyleEnum beerStyle, String upc, Integer minOnHand,
@@ -70,7 +80,13 @@ public class Beer extends BaseEntity {
     private Integer quantityToBrew;
     private BigDecimal price;
 
+    /**
+     * Sum of the inventory quantities, kept current by QuantityOnHandListener so reading a beer never has to
+     * load its inventory rows. Never written through the entity.
+     */
+    @Column(insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    private Integer quantityOnHand = 0;
+
     @OneToMany(mappedBy = "beer", cascade = CascadeType.ALL)
-    @Fetch(FetchMode.JOIN)
     private Set<BeerInventory> beerInventory = new HashSet<>();
 }
@@ -16,13 +16,18 @@
  */
 package guru.sfg.brewery.domain;
 
+import guru.sfg.brewery.services.BeerCatalogChangeListener;
+import guru.sfg.brewery.services.QuantityOnHandListener;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
+import javax.persistence.Transient;
 import java.sql.Timestamp;
 import java.util.UUID;
 
@@ -33,6 +38,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
+@EntityListeners({BeerCatalogChangeListener.class, QuantityOnHandListener.class})
 public class BeerInventory extends BaseEntity{
 
     @Builder
@@ -43,8 +49,17 @@ public class BeerInventory extends BaseEntity{
         this.quantityOnHand = quantityOnHand;
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Beer beer;
 
     private Integer quantityOnHand = 0;
+
+    /**
+     * Beer and quantity last added to Beer.quantityOnHand, see QuantityOnHandListener
+     */
+    @Transient
+    private UUID countedBeerId;
+
+    @Transient
+    private int countedQuantity;
 }
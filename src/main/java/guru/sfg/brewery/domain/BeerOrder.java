@@ -20,12 +20,13 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import java.sql.Timestamp;
 import java.util.Set;
@@ -38,8 +39,14 @@ import java.util.UUID;
 @Setter
 @Entity
 @NoArgsConstructor
+@NamedEntityGraph(name = BeerOrder.ORDER_DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("beerOrderLines"))
 public class BeerOrder extends BaseEntity {
 
+    /**
+     * One order with its lines.
+     */
+    public static final String ORDER_DETAIL_GRAPH = "BeerOrder.detail";
+
     @Builder
     public BeerOrder(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String customerRef, Customer customer,
                      Set<BeerOrderLine> beerOrderLines, OrderStatusEnum orderStatus,
@@ -54,11 +61,10 @@ public class BeerOrder extends BaseEntity {
 
     private String customerRef;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
     @OneToMany(mappedBy = "beerOrder", cascade = CascadeType.ALL)
-    @Fetch(FetchMode.JOIN)
     private Set<BeerOrderLine> beerOrderLines;
 
     private OrderStatusEnum orderStatus = OrderStatusEnum.NEW;
@@ -22,6 +22,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import java.sql.Timestamp;
 import java.util.UUID;
@@ -46,10 +47,10 @@ public class BeerOrderLine extends BaseEntity {
         this.quantityAllocated = quantityAllocated;
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private BeerOrder beerOrder;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Beer beer;
 
     private Integer orderQuantity = 0;
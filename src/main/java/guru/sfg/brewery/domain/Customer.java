@@ -17,6 +17,7 @@
 package guru.sfg.brewery.domain;
 
 import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.services.NameIndexListener;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -34,6 +35,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
+@EntityListeners(NameIndexListener.class)
 public class Customer extends BaseEntity {
 
     @Builder
@@ -53,7 +55,7 @@ public class Customer extends BaseEntity {
     @OneToMany(mappedBy = "customer")
     private Set<BeerOrder> beerOrders;
 
-    @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
     private Set<User> users;
 
 }
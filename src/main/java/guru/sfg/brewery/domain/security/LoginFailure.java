@@ -14,8 +14,10 @@ import java.sql.Timestamp;
 @Setter
 @Entity
 public class LoginFailure {
+    // pooled, so LoginAuditWriter takes a block of ids per sequence call rather than one per row
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_failure_id")
+    @SequenceGenerator(name = "login_failure_id", sequenceName = "login_failure_seq", allocationSize = 100)
     private Integer id;
 
     private String username;
@@ -14,8 +14,10 @@ import java.sql.Timestamp;
 @Setter
 @Entity
 public class LoginSuccess {
+    // pooled, so LoginAuditWriter takes a block of ids per sequence call rather than one per row
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_success_id")
+    @SequenceGenerator(name = "login_success_id", sequenceName = "login_success_seq", allocationSize = 100)
     private Integer id;
 
     @ManyToOne
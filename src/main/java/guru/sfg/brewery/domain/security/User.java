@@ -1,12 +1,13 @@
 package guru.sfg.brewery.domain.security;
 
 import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.security.PermissionSet;
+import guru.sfg.brewery.security.listeners.UserChangeListener;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.*;
@@ -18,8 +19,10 @@ import java.util.stream.Collectors;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
+@EntityListeners(UserChangeListener.class)
 @Entity
+@Table(indexes = @Index(name = "ix_user_locked_last_modified", columnList = "accountNonLocked, lastModifiedDate"))
 public class User implements UserDetails, CredentialsContainer {
 
     @Id
@@ -30,27 +33,44 @@ public class User implements UserDetails, CredentialsContainer {
     private String password;
 
     @Singular // so that the builder provides function to set a single authority or set of authorities.
-    @ManyToMany(cascade = {CascadeType.MERGE}, fetch = FetchType.EAGER)
+    @ManyToMany(cascade = {CascadeType.MERGE})
     @JoinTable(name = "user_role",
             joinColumns = {@JoinColumn(name = "USER_ID", referencedColumnName = "ID")},
             inverseJoinColumns = {@JoinColumn(name = "ROLE_ID", referencedColumnName = "ID")})
     private Set<Role> roles;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
 //    @Transient
 //    private Set<Authority> authorities;
 
+    /**
+     * Worked out from the roles on first use. Copies made with toBuilder share it.
+     */
+    @Setter(AccessLevel.NONE)
+    @Transient
+    private PermissionSet permissions;
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.permissions = null;
+    }
+
+    public PermissionSet getPermissions() {
+        if (permissions == null) {
+            permissions = PermissionSet.of(this.roles.stream()
+                    .map(Role::getAuthorities)
+                    .flatMap(Set::stream)
+                    .map(Authority::getPermission)
+                    .collect(Collectors.toList()));
+        }
+        return permissions;
+    }
+
     @Transient
     public Set<GrantedAuthority> getAuthorities() {
-        return this.roles.stream()
-                .map(Role::getAuthorities)
-                .flatMap(Set::stream)
-                .map(authority -> {
-                    return new SimpleGrantedAuthority(authority.getPermission());
-                })
-                .collect(Collectors.toSet());
+        return getPermissions();
     }
 
     @Override
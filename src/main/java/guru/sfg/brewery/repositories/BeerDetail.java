@@ -0,0 +1,9 @@
+package guru.sfg.brewery.repositories;
+
+/**
+ * {@link BeerSummary} plus the maintained quantityOnHand column, still a plain column read of the beer row.
+ */
+public interface BeerDetail extends BeerSummary {
+
+    Integer getQuantityOnHand();
+}
@@ -0,0 +1,23 @@
+package guru.sfg.brewery.repositories;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * One row of an order joined to its lines: the order columns repeated on every row, then one line. The line
+ * columns are all null for an order without lines.
+ */
+public interface BeerOrderDetailRow extends BeerOrderSummary {
+
+    UUID getLineId();
+
+    Long getLineVersion();
+
+    Timestamp getLineCreatedDate();
+
+    Timestamp getLineLastModifiedDate();
+
+    UUID getBeerId();
+
+    Integer getOrderQuantity();
+}
@@ -18,9 +18,17 @@
 package guru.sfg.brewery.repositories;
 
 import guru.sfg.brewery.domain.BeerOrderLine;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface BeerOrderLineRepository extends PagingAndSortingRepository<BeerOrderLine, UUID> {
+
+    @Query("select l.id as id, l.version as version, l.createdDate as createdDate, " +
+            "l.lastModifiedDate as lastModifiedDate, l.beerOrder.id as beerOrderId, l.beer.id as beerId, " +
+            "l.orderQuantity as orderQuantity from BeerOrderLine l where l.beerOrder.id in ?1")
+    List<BeerOrderLineSummary> findSummariesByBeerOrderIdIn(Collection<UUID> beerOrderIds);
 }
@@ -0,0 +1,24 @@
+package guru.sfg.brewery.repositories;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Closed projection of an order line, order and beer only by their ids.
+ */
+public interface BeerOrderLineSummary {
+
+    UUID getId();
+
+    Long getVersion();
+
+    Timestamp getCreatedDate();
+
+    Timestamp getLastModifiedDate();
+
+    UUID getBeerOrderId();
+
+    UUID getBeerId();
+
+    Integer getOrderQuantity();
+}
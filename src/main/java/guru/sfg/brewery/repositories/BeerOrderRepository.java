@@ -21,12 +21,16 @@ import guru.sfg.brewery.domain.Customer;
 import guru.sfg.brewery.domain.OrderStatusEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,14 +38,83 @@ import java.util.UUID;
  */
 public interface BeerOrderRepository  extends JpaRepository<BeerOrder, UUID> {
 
+    int EXPORT_CHUNK_SIZE = 500;
+
+    String SUMMARY_COLUMNS = "o.id as id, o.version as version, o.createdDate as createdDate, " +
+            "o.lastModifiedDate as lastModifiedDate, o.customer.id as customerId, o.customerRef as customerRef, " +
+            "o.orderStatus as orderStatus, o.orderStatusCallbackUrl as orderStatusCallbackUrl";
+
     Page<BeerOrder> findAllByCustomer(Customer customer, Pageable pageable);
 
+    // paging over ids only - paging a join fetch of the lines would make Hibernate paginate in memory
+    @Query(value = "select o.id from BeerOrder o where o.customer.id = ?1",
+            countQuery = "select count(o) from BeerOrder o where o.customer.id = ?1")
+    Page<UUID> findAllIdsByCustomerId(UUID customerId, Pageable pageable);
+
+    @Query(value = "select o.id from BeerOrder o", countQuery = "select count(o) from BeerOrder o")
+    Page<UUID> findAllIds(Pageable pageable);
+
+    // slices read one row more than the page instead of running the count query
+    @Query("select o.id from BeerOrder o where o.customer.id = ?1")
+    Slice<UUID> findIdSliceByCustomerId(UUID customerId, Pageable pageable);
+
+    @Query("select o.id from BeerOrder o")
+    Slice<UUID> findIdSlice(Pageable pageable);
+
+    long countByCustomerId(UUID customerId);
+
+    // keyset pages - rows after (createdDate, id), no count query
+    @Query("select o.id from BeerOrder o where o.customer.id = ?1 " +
+            "and (o.createdDate > ?2 or (o.createdDate = ?2 and o.id > ?3)) order by o.createdDate, o.id")
+    List<UUID> findIdsByCustomerIdAfter(UUID customerId, Timestamp createdDate, UUID id, Pageable pageable);
+
+    @Query("select o.id from BeerOrder o " +
+            "where o.createdDate > ?1 or (o.createdDate = ?1 and o.id > ?2) order by o.createdDate, o.id")
+    List<UUID> findIdsAfter(Timestamp createdDate, UUID id, Pageable pageable);
+
+    @Query("select " + SUMMARY_COLUMNS + " from BeerOrder o where o.id in ?1")
+    List<BeerOrderSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    // export chunks, rows after (createdDate, id) or from the first when createdDate is null - null filters match
+    // everything. Each chunk is read to the end before its lines are queried, so no cursor stays open meanwhile.
+    @Query("select " + SUMMARY_COLUMNS + " from BeerOrder o where o.customer.id = ?1 " +
+            "and (?2 is null or o.orderStatus = ?2) and (?3 is null or o.createdDate >= ?3) " +
+            "and (?4 is null or o.createdDate < ?4) " +
+            "and (?5 is null or o.createdDate > ?5 or (o.createdDate = ?5 and o.id > ?6)) order by o.createdDate, o.id")
+    List<BeerOrderSummary> findExportChunkByCustomerId(UUID customerId, OrderStatusEnum orderStatus, Timestamp from,
+                                                       Timestamp to, Timestamp createdDate, UUID id, Pageable pageable);
+
+    @Query("select " + SUMMARY_COLUMNS + " from BeerOrder o where (?1 is null or o.orderStatus = ?1) " +
+            "and (?2 is null or o.createdDate >= ?2) and (?3 is null or o.createdDate < ?3) " +
+            "and (?4 is null or o.createdDate > ?4 or (o.createdDate = ?4 and o.id > ?5)) order by o.createdDate, o.id")
+    List<BeerOrderSummary> findExportChunk(OrderStatusEnum orderStatus, Timestamp from, Timestamp to,
+                                           Timestamp createdDate, UUID id, Pageable pageable);
+
+    // the order and its lines in one query, only if it belongs to the customer - never touches Customer itself
+    @Query("select " + SUMMARY_COLUMNS + ", l.id as lineId, l.version as lineVersion, " +
+            "l.createdDate as lineCreatedDate, l.lastModifiedDate as lineLastModifiedDate, l.beer.id as beerId, " +
+            "l.orderQuantity as orderQuantity from BeerOrder o left join o.beerOrderLines l " +
+            "where o.id = ?1 and o.customer.id = ?2")
+    List<BeerOrderDetailRow> findOrderDetail(UUID orderId, UUID customerId);
+
     List<BeerOrder> findAllByOrderStatus(OrderStatusEnum orderStatusEnum);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    BeerOrder findOneById(UUID id);
+    // a status change is one conditional update, no lock and no load - 0 rows when the order is not the
+    // customer's or not in one of the from states
+    @Modifying
+    @Query("update BeerOrder o set o.orderStatus = ?3, o.version = o.version + 1, o.lastModifiedDate = ?5 " +
+            "where o.id = ?1 and o.customer.id = ?2 and o.orderStatus in ?4")
+    int transitionStatus(UUID orderId, UUID customerId, OrderStatusEnum to, Collection<OrderStatusEnum> from,
+                         Timestamp now);
+
+    @Query("select o.orderStatus from BeerOrder o where o.id = ?1 and o.customer.id = ?2")
+    Optional<OrderStatusEnum> findOrderStatus(UUID orderId, UUID customerId);
 
     // ?1 is the first parameter which is orderId
+    @EntityGraph(BeerOrder.ORDER_DETAIL_GRAPH)
     @Query("select o from BeerOrder o where o.id = ?1 and (true = :#{hasAuthority('order.read')} or o.customer.id = ?#{principal?.customer?.id})")
     BeerOrder findOrderByIdSecure(UUID orderId);
+
+    @Query("select " + SUMMARY_COLUMNS + " from BeerOrder o where o.id = ?1 and (true = :#{hasAuthority('order.read')} or o.customer.id = ?#{principal?.customer?.id})")
+    Optional<BeerOrderSummary> findOrderSummaryByIdSecure(UUID orderId);
 }
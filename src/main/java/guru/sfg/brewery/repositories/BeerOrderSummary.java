@@ -0,0 +1,28 @@
+package guru.sfg.brewery.repositories;
+
+import guru.sfg.brewery.domain.OrderStatusEnum;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Closed projection of the beer order columns a {@code BeerOrderDto} needs, the customer only by its id.
+ */
+public interface BeerOrderSummary {
+
+    UUID getId();
+
+    Long getVersion();
+
+    Timestamp getCreatedDate();
+
+    Timestamp getLastModifiedDate();
+
+    UUID getCustomerId();
+
+    String getCustomerRef();
+
+    OrderStatusEnum getOrderStatus();
+
+    String getOrderStatusCallbackUrl();
+}
@@ -20,15 +20,30 @@ import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Created by jt on 2019-01-26.
  */
 public interface BeerRepository extends JpaRepository<Beer, UUID> {
-    
+
+    String SUMMARY_COLUMNS = "b.id as id, b.version as version, b.createdDate as createdDate, " +
+            "b.lastModifiedDate as lastModifiedDate, b.beerName as beerName, b.beerStyle as beerStyle, " +
+            "b.upc as upc, b.price as price";
+
+    String DETAIL_COLUMNS = SUMMARY_COLUMNS + ", b.quantityOnHand as quantityOnHand";
+
     Page<Beer> findAllByBeerName(String beerName, Pageable pageable);
 
     Page<Beer> findAllByBeerNameIsLike(String beerName, Pageable pageable);
@@ -38,4 +53,67 @@ public interface BeerRepository extends JpaRepository<Beer, UUID> {
     Page<Beer> findAllByBeerNameAndBeerStyle(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
 
     Beer findByUpc(String upc);
+
+    // the beer details page lists the inventory rows
+    @EntityGraph(Beer.BEER_DETAIL_GRAPH)
+    Optional<Beer> findWithInventoryById(UUID id);
+
+    List<Beer> findAllByUpcIn(Collection<String> upcs);
+
+    // null filters match everything
+    @Query("select count(b) from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)")
+    long countByFilter(String beerName, BeerStyleEnum beerStyle);
+
+    // BeerSummary projections - null filters match everything
+    @Query(value = "select " + SUMMARY_COLUMNS + " from Beer b " +
+            "where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)",
+            countQuery = "select count(b) from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)")
+    Page<BeerSummary> findSummaryPageByFilter(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)")
+    Slice<BeerSummary> findSummarySliceByFilter(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2) " +
+            "and (b.createdDate > ?3 or (b.createdDate = ?3 and b.id > ?4)) order by b.createdDate, b.id")
+    List<BeerSummary> findSummariesAfter(String beerName, BeerStyleEnum beerStyle, Timestamp createdDate, UUID id, Pageable pageable);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Beer b where b.id = ?1")
+    Optional<BeerSummary> findSummaryById(UUID id);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Beer b where b.id in ?1")
+    List<BeerSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Beer b")
+    List<BeerSummary> findAllSummaries();
+
+    // BeerDetail projections, the same with quantityOnHand - keyset pages are beers after (createdDate, id)
+    @Query(value = "select " + DETAIL_COLUMNS + " from Beer b " +
+            "where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)",
+            countQuery = "select count(b) from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)")
+    Page<BeerDetail> findDetailPageByFilter(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
+
+    @Query("select " + DETAIL_COLUMNS + " from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2)")
+    Slice<BeerDetail> findDetailSliceByFilter(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
+
+    @Query("select " + DETAIL_COLUMNS + " from Beer b where (?1 is null or b.beerName = ?1) and (?2 is null or b.beerStyle = ?2) " +
+            "and (b.createdDate > ?3 or (b.createdDate = ?3 and b.id > ?4)) order by b.createdDate, b.id")
+    List<BeerDetail> findDetailsAfter(String beerName, BeerStyleEnum beerStyle, Timestamp createdDate, UUID id, Pageable pageable);
+
+    @Query("select " + DETAIL_COLUMNS + " from Beer b where b.id = ?1")
+    Optional<BeerDetail> findDetailById(UUID id);
+
+    @Query("select " + DETAIL_COLUMNS + " from Beer b where b.upc = ?1")
+    Optional<BeerDetail> findDetailByUpc(String upc);
+
+    // single statement updates - they bypass the entity listeners, so the caller evicts the catalog cache
+    @Modifying
+    @Query("update Beer b set b.beerName = ?2, b.beerStyle = ?3, b.price = ?4, b.upc = ?5, " +
+            "b.version = b.version + 1, b.lastModifiedDate = ?7 where b.id = ?1 and b.version = ?6")
+    int updateIfVersion(UUID id, String beerName, BeerStyleEnum beerStyle, BigDecimal price, String upc, Long version,
+                        Timestamp now);
+
+    @Modifying
+    @Query("update Beer b set b.beerName = ?2, b.beerStyle = ?3, b.price = ?4, b.upc = ?5, " +
+            "b.version = b.version + 1, b.lastModifiedDate = ?6 where b.id = ?1")
+    int update(UUID id, String beerName, BeerStyleEnum beerStyle, BigDecimal price, String upc, Timestamp now);
 }
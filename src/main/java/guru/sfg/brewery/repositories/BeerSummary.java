@@ -0,0 +1,30 @@
+package guru.sfg.brewery.repositories;
+
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Closed projection of a beer without anything inventory related - only these columns are selected and no
+ * entity is loaded into the persistence context.
+ */
+public interface BeerSummary {
+
+    UUID getId();
+
+    Long getVersion();
+
+    Timestamp getCreatedDate();
+
+    Timestamp getLastModifiedDate();
+
+    String getBeerName();
+
+    BeerStyleEnum getBeerStyle();
+
+    String getUpc();
+
+    BigDecimal getPrice();
+}
@@ -18,7 +18,9 @@ package guru.sfg.brewery.repositories;
 
 import guru.sfg.brewery.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,7 +29,17 @@ import java.util.UUID;
  * Created by jt on 2019-01-26.
  */
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
-    List<Customer> findAllByCustomerNameLike(String customerName);
+
+    String SUMMARY_COLUMNS = "c.id as id, c.customerName as customerName, c.createdDate as createdDate";
 
     Optional<Customer> findAllByCustomerName(String customerName);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Customer c where c.id = ?1")
+    Optional<CustomerSummary> findSummaryById(UUID id);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Customer c where c.id in ?1")
+    List<CustomerSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Customer c")
+    List<CustomerSummary> findAllSummaries();
 }
@@ -0,0 +1,16 @@
+package guru.sfg.brewery.repositories;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Customer columns for the search selection list, read without the customer's users and roles.
+ */
+public interface CustomerSummary {
+
+    UUID getId();
+
+    String getCustomerName();
+
+    Timestamp getCreatedDate();
+}
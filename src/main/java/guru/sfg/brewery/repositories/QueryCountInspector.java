@@ -0,0 +1,25 @@
+package guru.sfg.brewery.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered through
+ * hibernate.session_factory.statement_inspector, read with {@link #count()} before and after a unit of work.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return statements prepared on this thread so far - only the difference between two calls is meaningful
+     */
+    public static long count() {
+        return STATEMENTS.get()[0];
+    }
+}
@@ -1,12 +1,25 @@
 package guru.sfg.brewery.repositories.security;
 
 import guru.sfg.brewery.domain.security.LoginFailure;
-import guru.sfg.brewery.domain.security.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.sql.Timestamp;
 import java.util.List;
 
 public interface LoginFailureRepository extends JpaRepository<LoginFailure, Integer> {
-    List<LoginFailure> findAllByUserAndCreatedDateIsAfter(User user, Timestamp timestamp);
+    // keyset page - pass a Pageable sorted by id and the last id of the previous page
+    List<LoginFailureSummary> findAllByCreatedDateIsAfterAndIdGreaterThan(Timestamp timestamp, Integer id,
+                                                                          Pageable pageable);
+
+    // projection - only the columns needed to rebuild the failure counters
+    interface LoginFailureSummary {
+        Integer getId();
+
+        String getUsername();
+
+        String getSourceIp();
+
+        Timestamp getCreatedDate();
+    }
 }
@@ -2,13 +2,25 @@ package guru.sfg.brewery.repositories.security;
 
 import guru.sfg.brewery.domain.security.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
+    // the principal is cached and used detached, so everything it needs comes in this one query - a join fetch,
+    // as an entity graph here also loads Authority.roles, one query per authority
+    @Query("select distinct u from User u left join fetch u.roles r left join fetch r.authorities " +
+            "left join fetch u.customer where u.username = ?1")
     Optional<User> findByUsername(String username);
 
-    List<User> findAllByAccountNonLockedAndLastModifiedDateIsBefore(Boolean locked, Timestamp timestamp);
+    // both queries are covered by the (account_non_locked, last_modified_date) index on user
+    @Query("select u.username from User u where u.accountNonLocked = false and u.lastModifiedDate < ?1")
+    List<String> findLockedUsernamesModifiedBefore(Timestamp timestamp);
+
+    @Modifying
+    @Query("update User u set u.accountNonLocked = true, u.lastModifiedDate = ?2 where u.accountNonLocked = false and u.lastModifiedDate < ?1")
+    int unlockAllModifiedBefore(Timestamp timestamp, Timestamp now);
 }
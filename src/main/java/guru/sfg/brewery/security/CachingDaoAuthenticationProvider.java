@@ -0,0 +1,70 @@
+package guru.sfg.brewery.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * DaoAuthenticationProvider that skips the password encoder when the same secret was verified for the user
+ * within the last few seconds. API clients send Api-Key/Api-Secret on every call, so without this every
+ * request pays a full BCrypt round.
+ *
+ * Lock, enabled and expiry checks still run on every request against the (fresh) principal.
+ *
+ * A principal whose authorities are a {@link PermissionSet} gets a {@link PermissionSetAuthenticationToken}, as long
+ * as the authorities mapper left them as they were.
+ */
+@Slf4j
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache verifiedCredentialCache;
+
+    public CachingDaoAuthenticationProvider(VerifiedCredentialCache verifiedCredentialCache) {
+        this.verifiedCredentialCache = verifiedCredentialCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null || userDetails.getPassword() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+
+        String presentedSecret = authentication.getCredentials().toString();
+
+        if (verifiedCredentialCache.isVerified(userDetails.getUsername(), presentedSecret, userDetails.getPassword())) {
+            log.debug("Credentials previously verified for: " + userDetails.getUsername());
+            return;
+        }
+
+        // throws BadCredentialsException on mismatch, so only good credentials get cached
+        super.additionalAuthenticationChecks(userDetails, authentication);
+
+        verifiedCredentialCache.verified(userDetails.getUsername(), presentedSecret, userDetails.getPassword());
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        Authentication result = super.createSuccessAuthentication(principal, authentication, user);
+
+        if (!(user.getAuthorities() instanceof PermissionSet)) {
+            return result;
+        }
+
+        PermissionSet permissions = (PermissionSet) user.getAuthorities();
+
+        if (result.getAuthorities().size() != permissions.size() || !permissions.containsAll(result.getAuthorities())) {
+            return result;
+        }
+
+        PermissionSetAuthenticationToken token = new PermissionSetAuthenticationToken(result.getPrincipal(),
+                result.getCredentials(), permissions);
+        token.setDetails(result.getDetails());
+        return token;
+    }
+}
@@ -8,7 +8,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -16,22 +15,30 @@ import org.springframework.transaction.annotation.Transactional;
 public class JpaUserDetailService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
-    @Transactional
+    // not @Transactional - a cache hit should not check out a connection. The repository call runs in its own
+    // read only transaction and the user graph is eagerly loaded.
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userPrincipalCache.get(username, this::loadUser);
+    }
 
+    private User loadUser(String username) {
         log.debug("Getting User info via JPA");
 
         User user = userRepository.findByUsername(username).orElseThrow(() -> {
             return new UsernameNotFoundException("User name: " + username + " not found");
         });
 
+        // once per load, the principal cache hands out copies that share it
+        user.getPermissions();
+        return user;
+    }
+
 //        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(),
 //                user.getEnabled(), user.getAccountNonExpired(), user.getCredentialsNonExpired(),
 //                user.getAccountNonLocked(), convertToSpringAuthorities(user.getAuthorities()));
-        return user;
-    }
 
 //    private Collection<? extends GrantedAuthority> convertToSpringAuthorities(Set<Authority> authorities) {
 //        if (authorities != null & authorities.size() > 0) {
@@ -0,0 +1,233 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.domain.security.LoginFailure;
+import guru.sfg.brewery.domain.security.LoginSuccess;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes LoginSuccess/LoginFailure rows off the request thread. Events go into a bounded queue and a single
+ * background thread writes them with JDBC batch inserts, every flush-interval or once batch-size rows are waiting.
+ *
+ * Ids come from the entities' own Hibernate identifier generators, so rows written here and through JPA never
+ * collide and no database specific sequence syntax is needed. Those are pooled, one sequence call hands out a block
+ * of ids the size of a default batch.
+ *
+ * When the queue is full the caller waits at most offer-timeout, then the event is dropped and counted.
+ * Whatever is still queued on shutdown is written before the DataSource goes away, unless the writer thread is
+ * stuck; those events are dropped and counted.
+ */
+@Slf4j
+@Component
+public class LoginAuditWriter {
+
+    static final String INSERT_LOGIN_SUCCESS = "insert into login_success (id, user_id, source_ip, created_date, last_modified_date) " +
+            "values (?, ?, ?, ?, ?)";
+    static final String INSERT_LOGIN_FAILURE = "insert into login_failure (id, username, user_id, source_ip, created_date, last_modified_date) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    // queued by stop(), the writer thread finishes its batch and exits when it takes this
+    private static final Object STOP = new Object();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator loginSuccessIds;
+    private final IdentifierGenerator loginFailureIds;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+
+    private final Counter dropped;
+    private final Counter successWritten;
+    private final Counter failureWritten;
+    private final Counter writeErrors;
+    private final Timer flushTimer;
+
+    private Thread writerThread;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                            @Value("${sfg.security.audit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${sfg.security.audit.batch-size:100}") int batchSize,
+                            @Value("${sfg.security.audit.flush-interval:1s}") Duration flushInterval,
+                            @Value("${sfg.security.audit.offer-timeout:5ms}") Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.loginSuccessIds = sessionFactory.getMetamodel().entityPersister(LoginSuccess.class).getIdentifierGenerator();
+        this.loginFailureIds = sessionFactory.getMetamodel().entityPersister(LoginFailure.class).getIdentifierGenerator();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+
+        meterRegistry.gaugeCollectionSize("login.audit.queue.size", Tags.empty(), queue);
+        this.dropped = meterRegistry.counter("login.audit.dropped");
+        this.successWritten = meterRegistry.counter("login.audit.written", "type", "success");
+        this.failureWritten = meterRegistry.counter("login.audit.written", "type", "failure");
+        this.writeErrors = meterRegistry.counter("login.audit.write.errors");
+        this.flushTimer = meterRegistry.timer("login.audit.flush");
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new CustomizableThreadFactory("login-audit-").newThread(this::run);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // no interrupt - the writer thread may be in the middle of a JDBC batch
+        if (queue.offer(STOP, 10, TimeUnit.SECONDS)) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        if (writerThread.isAlive()) {
+            // still taking from the queue, draining it here as well would write batches twice over
+            int queued = queue.size();
+            dropped.increment(queued);
+            log.warn("Login audit writer did not stop in time, " + queued + " queued events dropped");
+            return;
+        }
+
+        // anything queued behind the stop marker
+        List<Object> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.remove(STOP);
+        if (!remaining.isEmpty()) {
+            log.debug("Draining " + remaining.size() + " login audit events on shutdown");
+            write(remaining);
+        }
+    }
+
+    public void record(LoginSuccess loginSuccess) {
+        if (loginSuccess.getCreatedDate() == null) {
+            loginSuccess.setCreatedDate(new Timestamp(System.currentTimeMillis()));
+        }
+        enqueue(loginSuccess);
+    }
+
+    public void record(LoginFailure loginFailure) {
+        if (loginFailure.getCreatedDate() == null) {
+            loginFailure.setCreatedDate(new Timestamp(System.currentTimeMillis()));
+        }
+        enqueue(loginFailure);
+    }
+
+    private void enqueue(Object event) {
+        try {
+            if (!queue.offer(event, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                dropped.increment();
+                log.warn("Login audit queue full, event dropped");
+            }
+        } catch (InterruptedException e) {
+            dropped.increment();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        boolean stopped = false;
+
+        while (!stopped) {
+            try {
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Object event = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+
+                    if (event == null) {
+                        break;
+                    }
+
+                    batch.add(event);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // not expected, stop() does not interrupt - write what we have, stop() drains the rest
+                stopped = true;
+            }
+
+            if (batch.remove(STOP)) {
+                stopped = true;
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Object> events) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> successes = new ArrayList<>();
+        List<Object[]> failures = new ArrayList<>();
+
+        flushTimer.record(() -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                events.forEach(event -> addRow(event, (SharedSessionContractImplementor) session, now, successes, failures));
+
+                if (!successes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_LOGIN_SUCCESS, successes);
+                    successWritten.increment(successes.size());
+                }
+                if (!failures.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_LOGIN_FAILURE, failures);
+                    failureWritten.increment(failures.size());
+                }
+            } catch (DataAccessException | HibernateException e) {
+                writeErrors.increment();
+                log.error("Unable to write " + events.size() + " login audit events", e);
+            }
+        });
+    }
+
+    private void addRow(Object event, SharedSessionContractImplementor session, Timestamp now,
+                        List<Object[]> successes, List<Object[]> failures) {
+        if (event instanceof LoginSuccess) {
+            LoginSuccess success = (LoginSuccess) event;
+            successes.add(new Object[]{
+                    loginSuccessIds.generate(session, success),
+                    success.getUser() != null ? success.getUser().getId() : null,
+                    success.getSourceIp(),
+                    success.getCreatedDate() != null ? success.getCreatedDate() : now,
+                    now});
+        } else if (event instanceof LoginFailure) {
+            LoginFailure failure = (LoginFailure) event;
+            failures.add(new Object[]{
+                    loginFailureIds.generate(session, failure),
+                    failure.getUsername(),
+                    failure.getUser() != null ? failure.getUser().getId() : null,
+                    failure.getSourceIp(),
+                    failure.getCreatedDate() != null ? failure.getCreatedDate() : now,
+                    now});
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package guru.sfg.brewery.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.sfg.brewery.repositories.security.LoginFailureRepository;
+import guru.sfg.brewery.repositories.security.LoginFailureRepository.LoginFailureSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sliding window count of failed logins per username and per source IP, held in memory so a burst of bad
+ * passwords never has to read the login_failure history back. Each window is split into fixed buckets, so the
+ * count is exact to within one bucket width.
+ *
+ * An account is locked once its own failures pass max-failures. Failures from one source IP never lock an account,
+ * as one client could then lock any user it names, and users behind a shared NAT would pay for each other's
+ * mistakes. A source IP with max-source-ip-failures in the window is throttled instead, see
+ * {@link SourceIpThrottleFilter} - a credential stuffing run tries many usernames a few times each, so it never
+ * trips the per user limit.
+ *
+ * Rebuilt from login_failure at startup, a page at a time; idle keys expire once the window has passed.
+ */
+@Slf4j
+@Component
+public class LoginFailureCounter {
+
+    private static final int BUCKETS = 96;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final LoginFailureRepository loginFailureRepository;
+    private final Duration window;
+    private final int maxFailures;
+    private final int maxSourceIpFailures;
+    private final long bucketMillis;
+    private final Cache<String, SlidingWindowCounter> byUsername;
+    private final Cache<String, SlidingWindowCounter> bySourceIp;
+    private final Counter userFailures;
+    private final Counter sourceIpFailures;
+    private final Counter lockouts;
+    private final Counter throttled;
+
+    public LoginFailureCounter(LoginFailureRepository loginFailureRepository, MeterRegistry meterRegistry,
+                               @Value("${sfg.security.lockout.max-failures:3}") int maxFailures,
+                               @Value("${sfg.security.lockout.max-source-ip-failures:20}") int maxSourceIpFailures,
+                               @Value("${sfg.security.lockout.window:24h}") Duration window,
+                               @Value("${sfg.security.lockout.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.loginFailureRepository = loginFailureRepository;
+        this.maxFailures = maxFailures;
+        this.maxSourceIpFailures = maxSourceIpFailures;
+        this.window = window;
+        this.bucketMillis = Math.max(1, window.toMillis() / BUCKETS);
+        this.byUsername = Caffeine.newBuilder().expireAfterAccess(window).maximumSize(maxTrackedKeys).build();
+        this.bySourceIp = Caffeine.newBuilder().expireAfterAccess(window).maximumSize(maxTrackedKeys).build();
+
+        this.userFailures = meterRegistry.counter("login.failures", "scope", "user");
+        this.sourceIpFailures = meterRegistry.counter("login.failures", "scope", "source.ip");
+        this.lockouts = meterRegistry.counter("login.lockouts");
+        this.throttled = meterRegistry.counter("login.throttled");
+        meterRegistry.gauge("login.failures.tracked", Tags.of("scope", "user"),
+                byUsername, Cache::estimatedSize);
+        meterRegistry.gauge("login.failures.tracked", Tags.of("scope", "source.ip"),
+                bySourceIp, Cache::estimatedSize);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - window.toMillis());
+        PageRequest page = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+        List<LoginFailureSummary> failures;
+        int lastId = Integer.MIN_VALUE;
+
+        do {
+            failures = loginFailureRepository.findAllByCreatedDateIsAfterAndIdGreaterThan(since, lastId, page);
+
+            for (LoginFailureSummary failure : failures) {
+                long timestamp = failure.getCreatedDate().getTime();
+                add(byUsername, failure.getUsername(), timestamp);
+                add(bySourceIp, failure.getSourceIp(), timestamp);
+                lastId = failure.getId();
+            }
+        } while (failures.size() == REBUILD_PAGE_SIZE);
+
+        log.debug("Login failure counters rebuilt. Users: " + byUsername.estimatedSize() + " Source IPs: " + bySourceIp.estimatedSize());
+    }
+
+    /**
+     * Counts the failure against the username and the source IP.
+     *
+     * @return true when the account should be locked: the username is over its limit within the window, counting
+     * this failure
+     */
+    public boolean recordFailure(String username, String sourceIp) {
+        long now = System.currentTimeMillis();
+        int ipFailures = 0;
+        int failures = 0;
+
+        if (sourceIp != null) {
+            ipFailures = add(bySourceIp, sourceIp, now);
+            sourceIpFailures.increment();
+        }
+
+        if (username != null) {
+            failures = add(byUsername, username, now);
+            userFailures.increment();
+        }
+
+        if (ipFailures == maxSourceIpFailures) {
+            log.debug("Throttling source IP " + sourceIp + " after " + ipFailures + " failures");
+        }
+
+        return failures > maxFailures;
+    }
+
+    /**
+     * @return true when the source IP has max-source-ip-failures within the window, so its login attempts are
+     * rejected without checking the credentials
+     */
+    public boolean isThrottled(String sourceIp) {
+        if (failuresForSourceIp(sourceIp) < maxSourceIpFailures) {
+            return false;
+        }
+
+        throttled.increment();
+        return true;
+    }
+
+    public void lockedOut(String username) {
+        log.debug("Locked out: " + username + " after " + failuresForUsername(username) + " failures");
+        lockouts.increment();
+    }
+
+    public int failuresForUsername(String username) {
+        return count(byUsername, username);
+    }
+
+    public int failuresForSourceIp(String sourceIp) {
+        return count(bySourceIp, sourceIp);
+    }
+
+    private int add(Cache<String, SlidingWindowCounter> counters, String key, long timestamp) {
+        if (key == null) {
+            return 0;
+        }
+
+        return counters.get(key, k -> new SlidingWindowCounter(BUCKETS, bucketMillis))
+                .add(timestamp, System.currentTimeMillis());
+    }
+
+    private int count(Cache<String, SlidingWindowCounter> counters, String key) {
+        SlidingWindowCounter counter = key != null ? counters.getIfPresent(key) : null;
+
+        return counter != null ? counter.total(System.currentTimeMillis()) : 0;
+    }
+
+    /**
+     * Ring of fixed width time buckets. Each slot remembers which bucket it currently holds, so stale slots are
+     * reset lazily when reused or ignored when summed.
+     */
+    static class SlidingWindowCounter {
+        private final long bucketMillis;
+        private final long[] slotBucket;
+        private final int[] slotCount;
+
+        SlidingWindowCounter(int buckets, long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+            this.slotBucket = new long[buckets];
+            this.slotCount = new int[buckets];
+        }
+
+        synchronized int add(long timestamp, long now) {
+            long bucket = timestamp / bucketMillis;
+
+            if (bucket > oldestBucket(now)) {
+                int slot = (int) (bucket % slotBucket.length);
+
+                if (slotBucket[slot] != bucket) {
+                    if (slotBucket[slot] > bucket) {
+                        // slot already reused by a newer bucket - too old to count
+                        return total(now);
+                    }
+                    slotBucket[slot] = bucket;
+                    slotCount[slot] = 0;
+                }
+                slotCount[slot]++;
+            }
+
+            return total(now);
+        }
+
+        synchronized int total(long now) {
+            long oldest = oldestBucket(now);
+            int total = 0;
+
+            for (int i = 0; i < slotBucket.length; i++) {
+                if (slotBucket[i] > oldest) {
+                    total += slotCount[i];
+                }
+            }
+
+            return total;
+        }
+
+        private long oldestBucket(long now) {
+            return now / bucketMillis - slotBucket.length;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package guru.sfg.brewery.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of granted authorities backed by a bitset, one bit per permission string.
+ *
+ * Permissions get their bit the first time any set uses them, and their {@link GrantedAuthority} is shared by
+ * every set. Sets are interned as well, so every user with the same roles holds the same instance.
+ * {@link #has(String)} is a map lookup and a bit test.
+ */
+public final class PermissionSet extends AbstractSet<GrantedAuthority> implements Serializable {
+
+    private static final Map<String, Permission> PERMISSIONS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger();
+
+    // bounded by the number of distinct role combinations, not by the number of users
+    private static final Map<BitSet, PermissionSet> INTERNED = new ConcurrentHashMap<>();
+
+    private final transient BitSet bits;
+    private final List<GrantedAuthority> authorities;
+
+    private PermissionSet(BitSet bits, Collection<String> permissions) {
+        this.bits = bits;
+        this.authorities = permissions.stream()
+                .distinct()
+                .map(PERMISSIONS::get)
+                .sorted(Comparator.comparingInt(permission -> permission.bit))
+                .map(permission -> permission.authority)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public static PermissionSet of(Collection<String> permissions) {
+        BitSet bits = new BitSet();
+
+        for (String permission : permissions) {
+            bits.set(PERMISSIONS.computeIfAbsent(permission, Permission::new).bit);
+        }
+
+        return INTERNED.computeIfAbsent(bits, key -> new PermissionSet(key, permissions));
+    }
+
+    public boolean has(String permission) {
+        Permission granted = PERMISSIONS.get(permission);
+
+        return granted != null && bits.get(granted.bit);
+    }
+
+    public boolean hasAny(String... permissions) {
+        for (String permission : permissions) {
+            if (has(permission)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof GrantedAuthority && has(((GrantedAuthority) o).getAuthority());
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        return authorities.iterator();
+    }
+
+    @Override
+    public int size() {
+        return authorities.size();
+    }
+
+    // bits are only meaningful within this JVM, so a deserialized set is looked up again by its permissions
+    private Object readResolve() {
+        return of(authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+    }
+
+    private static class Permission {
+        private final int bit = NEXT_BIT.getAndIncrement();
+        private final GrantedAuthority authority;
+
+        Permission(String permission) {
+            this.authority = new SimpleGrantedAuthority(permission);
+        }
+    }
+}
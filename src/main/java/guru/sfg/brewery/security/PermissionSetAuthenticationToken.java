@@ -0,0 +1,26 @@
+package guru.sfg.brewery.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authenticated username and password token whose authorities are the {@link PermissionSet} itself. The standard
+ * token copies its authorities into a list, which would leave {@link PermissionSetMethodSecurityExpressionHandler}
+ * nothing to bit test.
+ */
+public class PermissionSetAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final PermissionSet permissions;
+
+    public PermissionSetAuthenticationToken(Object principal, Object credentials, PermissionSet permissions) {
+        super(principal, credentials, permissions);
+        this.permissions = permissions;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return permissions;
+    }
+}
@@ -0,0 +1,131 @@
+package guru.sfg.brewery.security;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression handler that answers hasAuthority and hasAnyAuthority with a bit test when the
+ * authentication's authorities are a {@link PermissionSet}, see {@link PermissionSetAuthenticationToken}. The
+ * standard expression root copies the granted authorities into a new set of strings for every
+ * {@code @PreAuthorize} check.
+ *
+ * The authorities of the authentication are what is granted, not those of its principal: a token built with other
+ * authorities, such as a remember-me or a test token, and every other expression, are left to the standard root.
+ */
+public class PermissionSetMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication,
+                                                                              MethodInvocation invocation) {
+        MethodSecurityExpressionOperations root = super.createSecurityExpressionRoot(authentication, invocation);
+
+        if (authentication.getAuthorities() instanceof PermissionSet) {
+            return new PermissionSetExpressionRoot(root, (PermissionSet) authentication.getAuthorities());
+        }
+
+        return root;
+    }
+
+    @RequiredArgsConstructor
+    static class PermissionSetExpressionRoot implements MethodSecurityExpressionOperations {
+        private final MethodSecurityExpressionOperations root;
+        private final PermissionSet permissions;
+
+        @Override
+        public boolean hasAuthority(String authority) {
+            return permissions.has(authority);
+        }
+
+        @Override
+        public boolean hasAnyAuthority(String... authorities) {
+            return permissions.hasAny(authorities);
+        }
+
+        public Object getPrincipal() {
+            return root.getAuthentication().getPrincipal();
+        }
+
+        @Override
+        public Authentication getAuthentication() {
+            return root.getAuthentication();
+        }
+
+        @Override
+        public boolean hasRole(String role) {
+            return root.hasRole(role);
+        }
+
+        @Override
+        public boolean hasAnyRole(String... roles) {
+            return root.hasAnyRole(roles);
+        }
+
+        @Override
+        public boolean permitAll() {
+            return root.permitAll();
+        }
+
+        @Override
+        public boolean denyAll() {
+            return root.denyAll();
+        }
+
+        @Override
+        public boolean isAnonymous() {
+            return root.isAnonymous();
+        }
+
+        @Override
+        public boolean isAuthenticated() {
+            return root.isAuthenticated();
+        }
+
+        @Override
+        public boolean isRememberMe() {
+            return root.isRememberMe();
+        }
+
+        @Override
+        public boolean isFullyAuthenticated() {
+            return root.isFullyAuthenticated();
+        }
+
+        @Override
+        public boolean hasPermission(Object target, Object permission) {
+            return root.hasPermission(target, permission);
+        }
+
+        @Override
+        public boolean hasPermission(Object targetId, String targetType, Object permission) {
+            return root.hasPermission(targetId, targetType, permission);
+        }
+
+        @Override
+        public void setFilterObject(Object filterObject) {
+            root.setFilterObject(filterObject);
+        }
+
+        @Override
+        public Object getFilterObject() {
+            return root.getFilterObject();
+        }
+
+        @Override
+        public void setReturnObject(Object returnObject) {
+            root.setReturnObject(returnObject);
+        }
+
+        @Override
+        public Object getReturnObject() {
+            return root.getReturnObject();
+        }
+
+        @Override
+        public Object getThis() {
+            return root.getThis();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package guru.sfg.brewery.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers 429 to login attempts from a source IP with too many failed logins, see
+ * {@link LoginFailureCounter#isThrottled(String)}. The credentials are not checked, so the throttled client can
+ * neither guess further nor lock the accounts it names. Requests without credentials, such as an already logged
+ * in session, pass.
+ */
+@Slf4j
+public class SourceIpThrottleFilter extends GenericFilterBean {
+
+    private final LoginFailureCounter loginFailureCounter;
+    private final RequestMatcher formLogin = new AntPathRequestMatcher("/login", "POST");
+
+    public SourceIpThrottleFilter(LoginFailureCounter loginFailureCounter) {
+        this.loginFailureCounter = loginFailureCounter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        if (isLoginAttempt(request) && loginFailureCounter.isThrottled(request.getRemoteAddr())) {
+            log.debug("Login attempt from throttled source IP " + request.getRemoteAddr());
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // form login, http basic, and the header and url credentials of the REST auth filters
+    private boolean isLoginAttempt(HttpServletRequest request) {
+        return formLogin.matches(request)
+                || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                || request.getHeader("Api-Key") != null
+                || request.getParameter("apiKey") != null;
+    }
+}
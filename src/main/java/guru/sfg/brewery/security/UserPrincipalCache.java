@@ -0,0 +1,76 @@
+package guru.sfg.brewery.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.sfg.brewery.domain.security.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, time limited cache of loaded {@link User} principals keyed by username.
+ *
+ * Spring Security erases credentials on the principal after authentication, so callers always get a copy
+ * and the cached instance is never handed out.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "principalCache";
+
+    private final Cache<String, User> cache;
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${sfg.security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${sfg.security.principal-cache.ttl:5m}") Duration ttl) {
+        Cache<String, User> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public User get(String username, Function<String, User> loader) {
+        return copyOf(cache.get(username, loader));
+    }
+
+    /**
+     * Evicts the user now, and again once the current transaction commits so a concurrent load
+     * cannot re-cache the old row.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+
+        log.debug("Evicting cached principal: " + username);
+        cache.invalidate(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    public void evictAll(Iterable<String> usernames) {
+        usernames.forEach(this::evict);
+    }
+
+    private User copyOf(User user) {
+        return user.toBuilder().build();
+    }
+}
@@ -1,11 +1,13 @@
 package guru.sfg.brewery.security;
 
-import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.repositories.security.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
@@ -17,18 +19,38 @@ import java.util.List;
 public class UserUnlockService {
 
     private final UserRepository userRepository;
-
+    private final UserPrincipalCache userPrincipalCache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Unlocks every account locked for longer than 30 seconds with a single set based update.
+     *
+     * @return number of accounts unlocked
+     */
+    @Transactional
     @Scheduled(fixedRate = 300000)
-    public void unlockAccount() {
+    public int unlockAccount() {
         log.debug("Running Unlock Accounts");
 
-        List<User> lockedUsers = userRepository.findAllByAccountNonLockedAndLastModifiedDateIsBefore(false, Timestamp.valueOf(LocalDateTime.now().minusSeconds(30)));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp lockedBefore = Timestamp.valueOf(now.minusSeconds(30));
+
+        // usernames only, for cache invalidation - the update itself never loads a User
+        List<String> lockedUsernames = userRepository.findLockedUsernamesModifiedBefore(lockedBefore);
+        int unlocked = 0;
 
-        if(lockedUsers.size() > 0) {
+        if (!lockedUsernames.isEmpty()) {
             log.debug("Locked Accounts Found, Unlocking");
-            lockedUsers.forEach(user -> user.setAccountNonLocked(true));
+            unlocked = userRepository.unlockAllModifiedBefore(lockedBefore, Timestamp.valueOf(now));
 
-            userRepository.saveAll(lockedUsers);
+            // bulk updates skip the User entity listener, evict explicitly
+            userPrincipalCache.evictAll(lockedUsernames);
         }
+
+        meterRegistry.counter("user.unlock.accounts").increment(unlocked);
+        sample.stop(meterRegistry.timer("user.unlock.job"));
+
+        return unlocked;
     }
 }
@@ -0,0 +1,89 @@
+package guru.sfg.brewery.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Short lived record of credentials that already passed the (slow) password encoder.
+ *
+ * The presented secret is never stored - only an HMAC of it under a per-process random key. An entry also
+ * remembers the encoded password it was verified against, so a password change misses without an explicit
+ * eviction.
+ */
+@Slf4j
+@Component
+public class VerifiedCredentialCache {
+
+    public static final String CACHE_NAME = "verifiedCredentialCache";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, VerifiedCredential> cache;
+    private final SecretKeySpec hmacKey;
+
+    public VerifiedCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${sfg.security.credential-cache.max-size:10000}") long maxSize,
+                                   @Value("${sfg.security.credential-cache.ttl:60s}") Duration ttl) {
+        Cache<String, VerifiedCredential> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    public boolean isVerified(String username, String presentedSecret, String encodedPassword) {
+        VerifiedCredential verified = cache.getIfPresent(username);
+
+        return verified != null
+                && verified.getEncodedPassword().equals(encodedPassword)
+                && MessageDigest.isEqual(verified.getSecretMac(), mac(presentedSecret));
+    }
+
+    public void verified(String username, String presentedSecret, String encodedPassword) {
+        cache.put(username, new VerifiedCredential(encodedPassword, mac(presentedSecret)));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            log.debug("Evicting verified credential: " + username);
+            cache.invalidate(username);
+        }
+    }
+
+    private byte[] mac(String secret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class VerifiedCredential {
+        private final String encodedPassword;
+        private final byte[] secretMac;
+    }
+}
@@ -2,8 +2,9 @@ package guru.sfg.brewery.security.listeners;
 
 import guru.sfg.brewery.domain.security.LoginFailure;
 import guru.sfg.brewery.domain.security.User;
-import guru.sfg.brewery.repositories.security.LoginFailureRepository;
 import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.LoginAuditWriter;
+import guru.sfg.brewery.security.LoginFailureCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -12,17 +13,14 @@ import org.springframework.security.authentication.event.AuthenticationFailureBa
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
-import java.util.List;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AuthenticationFailureListener {
 
-    private final LoginFailureRepository loginFailureRepository;
     private final UserRepository userRepository;
+    private final LoginAuditWriter loginAuditWriter;
+    private final LoginFailureCounter loginFailureCounter;
 
     @EventListener
     public void listen(AuthenticationFailureBadCredentialsEvent event) {
@@ -44,22 +42,26 @@ public class AuthenticationFailureListener {
                 builder.sourceIp(details.getRemoteAddress());
             }
 
-            LoginFailure failure = loginFailureRepository.save(builder.build());
-            log.debug("Failure Event: " + failure.getId());
+            LoginFailure failure = builder.build();
+            loginAuditWriter.record(failure);
+            log.debug("Failure Event queued");
+
+            boolean overLimit = loginFailureCounter.recordFailure(failure.getUsername(), failure.getSourceIp());
 
-            if(failure.getUser() != null) {
+            if(failure.getUser() != null && overLimit) {
                 lockUserAccount(failure.getUser());
             }
         }
     }
 
     private void lockUserAccount(User user) {
-        List<LoginFailure> failures = loginFailureRepository.findAllByUserAndCreatedDateIsAfter(user, Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
-
-        if(failures.size() > 3) {
-            log.debug("Locking User Account... ");
-            user.setAccountNonLocked(false);
-            userRepository.save(user);
+        if(!user.getAccountNonLocked()) {
+            return;
         }
+
+        log.debug("Locking User Account... ");
+        user.setAccountNonLocked(false);
+        userRepository.save(user);
+        loginFailureCounter.lockedOut(user.getUsername());
     }
 }
@@ -2,7 +2,7 @@ package guru.sfg.brewery.security.listeners;
 
 import guru.sfg.brewery.domain.security.LoginSuccess;
 import guru.sfg.brewery.domain.security.User;
-import guru.sfg.brewery.repositories.security.LoginSuccessRepository;
+import guru.sfg.brewery.security.LoginAuditWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -16,7 +16,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuthenticationSuccessListener {
 
-    private final LoginSuccessRepository loginSuccessRepository;
+    private final LoginAuditWriter loginAuditWriter;
 
     @EventListener
     public void listen(AuthenticationSuccessEvent event) {
@@ -38,8 +38,8 @@ public class AuthenticationSuccessListener {
                 builder.sourceIp(details.getRemoteAddress());
             }
 
-            LoginSuccess loginSuccess = loginSuccessRepository.save(builder.build());
-            log.debug("Login Success saved. Id: " + loginSuccess.getId());
+            loginAuditWriter.record(builder.build());
+            log.debug("Login Success queued");
         }
     }
 }
@@ -0,0 +1,32 @@
+package guru.sfg.brewery.security.listeners;
+
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.security.UserPrincipalCache;
+import guru.sfg.brewery.security.VerifiedCredentialCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on {@link User}, so any save through UserRepository (lock, unlock, 2fa setup...)
+ * drops the cached principal and any verified credential.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserChangeListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final VerifiedCredentialCache verifiedCredentialCache;
+
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        log.debug("User changed: " + user.getUsername());
+        userPrincipalCache.evict(user.getUsername());
+        verifiedCredentialCache.evict(user.getUsername());
+    }
+}
@@ -0,0 +1,11 @@
+package guru.sfg.brewery.security.perms;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+@PreAuthorize("hasAuthority('beer.create') and hasAuthority('beer.update')")
+public @interface BeerUpsertPermission {
+}
@@ -0,0 +1,147 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerUpsertResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates or updates beers matched by UPC, chunk-size items at a time. Each chunk is one transaction: a single
+ * IN query finds the existing beers, then all inserts and updates go out as JDBC batches on flush. A chunk that
+ * fails to write is rolled back and its items reported rejected, the other chunks are unaffected.
+ */
+@Slf4j
+@Component
+public class BeerBulkUpsert {
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BeerBulkUpsert(BeerRepository beerRepository, PlatformTransactionManager transactionManager,
+                          @Value("${sfg.beer.bulk.chunk-size:500}") int chunkSize) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param beers read lazily, so a streamed request body is never held in memory as a whole
+     */
+    public List<BeerUpsertResult> upsert(Iterator<BeerDto> beers) {
+        List<BeerUpsertResult> results = new ArrayList<>();
+        List<BeerDto> chunk = new ArrayList<>(chunkSize);
+
+        while (beers.hasNext()) {
+            chunk.add(beers.next());
+
+            if (chunk.size() == chunkSize) {
+                results.addAll(upsertChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(upsertChunk(chunk, results.size()));
+        }
+
+        return results;
+    }
+
+    private List<BeerUpsertResult> upsertChunk(List<BeerDto> chunk, int firstIndex) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(chunk, firstIndex));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk beer upsert of items " + firstIndex + " to " + (firstIndex + chunk.size() - 1) + " failed", e);
+
+            return IntStream.range(0, chunk.size())
+                    .mapToObj(i -> rejected(firstIndex + i, chunk.get(i),
+                            "Not written: " + e.getMostSpecificCause().getMessage()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<BeerUpsertResult> writeChunk(List<BeerDto> chunk, int firstIndex) {
+        Set<String> upcs = chunk.stream()
+                .map(BeerDto::getUpc)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+
+        Map<String, Beer> beersByUpc = beerRepository.findAllByUpcIn(upcs).stream()
+                .collect(Collectors.toMap(Beer::getUpc, Function.identity()));
+
+        List<BeerUpsertResult> results = new ArrayList<>(chunk.size());
+        // a UPC repeated within the chunk updates the one beer, last item wins
+        Set<Beer> changed = new LinkedHashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            BeerDto beerDto = chunk.get(i);
+
+            if (!StringUtils.hasText(beerDto.getUpc())) {
+                results.add(rejected(firstIndex + i, beerDto, "upc is required"));
+                continue;
+            }
+
+            if (!StringUtils.hasText(beerDto.getBeerName())) {
+                results.add(rejected(firstIndex + i, beerDto, "beerName is required"));
+                continue;
+            }
+
+            Beer beer = beersByUpc.get(beerDto.getUpc());
+            BeerUpsertResult.Status status = BeerUpsertResult.Status.UPDATED;
+
+            if (beer == null) {
+                beer = Beer.builder().upc(beerDto.getUpc()).build();
+                beersByUpc.put(beer.getUpc(), beer);
+                status = BeerUpsertResult.Status.CREATED;
+            }
+
+            beer.setBeerName(beerDto.getBeerName());
+            beer.setBeerStyle(beerDto.getBeerStyle());
+            beer.setPrice(beerDto.getPrice());
+            changed.add(beer);
+
+            results.add(BeerUpsertResult.builder()
+                    .index(firstIndex + i)
+                    .upc(beerDto.getUpc())
+                    .status(status)
+                    .build());
+        }
+
+        beerRepository.saveAll(changed);
+        beerRepository.flush();
+
+        results.stream()
+                .filter(result -> result.getStatus() != BeerUpsertResult.Status.REJECTED)
+                .forEach(result -> result.setBeerId(beersByUpc.get(result.getUpc()).getId()));
+
+        return results;
+    }
+
+    private BeerUpsertResult rejected(int index, BeerDto beerDto, String message) {
+        return BeerUpsertResult.builder()
+                .index(index)
+                .upc(beerDto.getUpc())
+                .status(BeerUpsertResult.Status.REJECTED)
+                .message(message)
+                .build();
+    }
+}
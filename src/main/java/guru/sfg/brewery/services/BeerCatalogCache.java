@@ -0,0 +1,182 @@
+package guru.sfg.brewery.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerPagedList;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.CountMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the beer catalog: beers by id and by UPC, and list pages per (beerName, beerStyle,
+ * page, size, countMode). By id and page entries are kept apart for showInventoryOnHand true and false since only
+ * the former carries quantityOnHand. Size bounded (Caffeine's frequency based eviction).
+ *
+ * Any change to a beer or its inventory made through JPA evicts it (see {@link BeerCatalogChangeListener}). Inside
+ * a transaction the changed beers are collected and evicted once it commits, so a bulk write costs one pass over
+ * the pages however many beers it touches. By UPC entries are found through a beer id to UPC map.
+ * Entries also expire after max-staleness, which bounds how old a cached quantityOnHand can get when inventory
+ * is changed some other way.
+ */
+@Slf4j
+@Component
+public class BeerCatalogCache {
+
+    private final Cache<BeerKey, BeerDto> byId;
+    private final Cache<String, BeerDto> byUpc;
+    private final Cache<PageKey, BeerPagedList> pages;
+    private final Map<UUID, String> upcByBeerId = new ConcurrentHashMap<>();
+
+    public BeerCatalogCache(MeterRegistry meterRegistry,
+                            @Value("${sfg.catalog.cache.max-size:10000}") long maxSize,
+                            @Value("${sfg.catalog.cache.page-max-size:1000}") long pageMaxSize,
+                            @Value("${sfg.catalog.cache.max-staleness:30s}") Duration maxStaleness) {
+        Cache<BeerKey, BeerDto> byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+        Cache<String, BeerDto> byUpc = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .executor(Runnable::run)
+                .removalListener((String upc, BeerDto beer, RemovalCause cause) -> {
+                    if (beer != null && beer.getId() != null) {
+                        upcByBeerId.remove(beer.getId(), upc);
+                    }
+                })
+                .recordStats()
+                .build();
+        Cache<PageKey, BeerPagedList> pages = Caffeine.newBuilder()
+                .maximumSize(pageMaxSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+
+        this.byId = monitor(meterRegistry, byId, "beerCatalogById");
+        this.byUpc = monitor(meterRegistry, byUpc, "beerCatalogByUpc");
+        this.pages = monitor(meterRegistry, pages, "beerCatalogPages");
+    }
+
+    public BeerDto getById(UUID beerId, boolean showInventoryOnHand, Function<UUID, BeerDto> loader) {
+        return byId.get(new BeerKey(beerId, showInventoryOnHand), key -> loader.apply(beerId));
+    }
+
+    public BeerDto getByUpc(String upc, Function<String, BeerDto> loader) {
+        return byUpc.get(upc, key -> {
+            BeerDto beer = loader.apply(key);
+
+            if (beer != null && beer.getId() != null) {
+                upcByBeerId.put(beer.getId(), key);
+            }
+            return beer;
+        });
+    }
+
+    public BeerPagedList getPage(String beerName, BeerStyleEnum beerStyle, int pageNumber, int pageSize,
+                                 CountMode countMode, boolean showInventoryOnHand, Supplier<BeerPagedList> loader) {
+        return pages.get(new PageKey(beerName, beerStyle, pageNumber, pageSize, countMode, showInventoryOnHand),
+                key -> loader.get());
+    }
+
+    /**
+     * Evicts the beer and every cached page once the current transaction commits - evicting earlier would let a
+     * concurrent read re-cache the old row - or right away outside a transaction. Beers changed in one
+     * transaction are evicted together.
+     */
+    @SuppressWarnings("unchecked")
+    public void evict(UUID beerId) {
+        if (beerId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(Collections.singleton(beerId));
+            return;
+        }
+
+        Set<UUID> changed = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+
+        if (changed == null) {
+            Set<UUID> beerIds = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, beerIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BeerCatalogCache.this);
+
+                    if (status == STATUS_COMMITTED) {
+                        invalidate(beerIds);
+                    }
+                }
+            });
+            changed = beerIds;
+        }
+
+        changed.add(beerId);
+    }
+
+    private void invalidate(Collection<UUID> beerIds) {
+        log.debug("Evicting " + beerIds.size() + " cached beers");
+
+        beerIds.forEach(beerId -> {
+            byId.invalidate(new BeerKey(beerId, true));
+            byId.invalidate(new BeerKey(beerId, false));
+
+            // the UPC may just have changed, so the entry is found by its beer
+            String upc = upcByBeerId.remove(beerId);
+            if (upc != null) {
+                byUpc.invalidate(upc);
+            }
+        });
+        pages.invalidateAll();
+    }
+
+    private static <K, V> Cache<K, V> monitor(MeterRegistry meterRegistry, Cache<K, V> cache, String cacheName) {
+        Gauge.builder("beer.catalog.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class PageKey {
+        private final String beerName;
+        private final BeerStyleEnum beerStyle;
+        private final int pageNumber;
+        private final int pageSize;
+        private final CountMode countMode;
+        private final boolean showInventoryOnHand;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class BeerKey {
+        private final UUID beerId;
+        private final boolean showInventoryOnHand;
+    }
+}
@@ -0,0 +1,32 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on {@link Beer} and {@link BeerInventory}, so saves through BeerServiceImpl, BeerController
+ * or any repository drop the affected beer from the catalog cache.
+ */
+@RequiredArgsConstructor
+@Component
+public class BeerCatalogChangeListener {
+
+    private final BeerCatalogCache beerCatalogCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void catalogChanged(Object entity) {
+        if (entity instanceof Beer) {
+            beerCatalogCache.evict(((Beer) entity).getId());
+        } else if (entity instanceof BeerInventory && ((BeerInventory) entity).getBeer() != null) {
+            beerCatalogCache.evict(((BeerInventory) entity).getBeer().getId());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package guru.sfg.brewery.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Trigram index of beer names for case insensitive substring search.
+ *
+ * A query's rarest trigram gives the candidates, which are then checked with a plain contains. Queries shorter
+ * than a trigram check every name, still without touching the database.
+ */
+@Component
+public class BeerNameIndex extends NameIndex {
+
+    static final int GRAM = 3;
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::getPosition)
+            .thenComparingInt(match -> match.getName().length())
+            .thenComparing(Match::getName);
+
+    public BeerNameIndex() {
+        super(new HashMap<>());
+    }
+
+    /**
+     * @param limit how many of the best matches to return
+     * @return the best matches, best first: names starting with the query, then by where it matches, then shorter
+     * names. A blank query matches every beer.
+     */
+    public Matches search(String query, int limit) {
+        String q = normalize(query);
+
+        lock.readLock().lock();
+        try {
+            Collection<UUID> candidates = q.length() < GRAM ? names.keySet() : candidates(q);
+
+            return rank(candidates, limit, name -> name.indexOf(q), BEST_FIRST);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected Collection<String> tokens(String name) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM <= name.length(); i++) {
+            grams.add(name.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private Collection<UUID> candidates(String q) {
+        Set<UUID> rarest = null;
+
+        for (String gram : tokens(q)) {
+            Set<UUID> beerIds = postings.get(gram);
+
+            if (beerIds == null) {
+                return Collections.emptySet();
+            }
+            if (rarest == null || beerIds.size() < rarest.size()) {
+                rarest = beerIds;
+            }
+        }
+
+        return rarest;
+    }
+}
@@ -20,13 +20,20 @@ package guru.sfg.brewery.services;
 
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
+import guru.sfg.brewery.web.model.OrderStatusEnum;
 import org.springframework.data.domain.Pageable;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface BeerOrderService {
     BeerOrderPagedList listOrders(UUID customerId, Pageable pageable);
 
+    BeerOrderPagedList listOrders(UUID customerId, Pageable pageable, CountMode countMode);
+
     BeerOrderDto placeOrder(UUID customerId, BeerOrderDto beerOrderDto);
 
     BeerOrderDto getOrderById(UUID customerId, UUID orderId);
@@ -35,5 +42,18 @@ public interface BeerOrderService {
 
     BeerOrderPagedList listOrders(Pageable pageable);
 
+    BeerOrderPagedList listOrders(Pageable pageable, CountMode countMode);
+
     BeerOrderDto getOrderById(UUID orderId);
+
+    BeerOrderPagedList listOrders(UUID customerId, KeysetCursor cursor, int pageSize);
+
+    BeerOrderPagedList listOrders(KeysetCursor cursor, int pageSize);
+
+    /**
+     * Hands every matching order to the consumer, oldest first, without holding more than one chunk of
+     * orders in memory. Null arguments match everything, from is inclusive and to exclusive.
+     */
+    void exportOrders(UUID customerId, OrderStatusEnum orderStatus, OffsetDateTime from, OffsetDateTime to,
+                      Consumer<BeerOrderDto> consumer);
 }
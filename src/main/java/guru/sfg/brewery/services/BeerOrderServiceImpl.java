@@ -20,21 +20,45 @@ package guru.sfg.brewery.services;
 import guru.sfg.brewery.domain.BeerOrder;
 import guru.sfg.brewery.domain.Customer;
 import guru.sfg.brewery.domain.OrderStatusEnum;
+import guru.sfg.brewery.repositories.BeerOrderDetailRow;
 import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.BeerOrderLineRepository;
+import guru.sfg.brewery.repositories.BeerOrderLineSummary;
+import guru.sfg.brewery.repositories.BeerOrderSummary;
 import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.QueryCountInspector;
+import guru.sfg.brewery.web.mappers.BeerOrderLineMapper;
 import guru.sfg.brewery.web.mappers.BeerOrderMapper;
+import guru.sfg.brewery.web.mappers.DateMapper;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,41 +66,175 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class BeerOrderServiceImpl implements BeerOrderService {
 
+    private static final Set<OrderStatusEnum> PICKUP_FROM = EnumSet.of(OrderStatusEnum.NEW, OrderStatusEnum.READY);
+
     private final BeerOrderRepository beerOrderRepository;
     private final CustomerRepository customerRepository;
+    private final BeerOrderLineRepository beerOrderLineRepository;
     private final BeerOrderMapper beerOrderMapper;
+    private final BeerOrderLineMapper beerOrderLineMapper;
+    private final DateMapper dateMapper;
+    private final MeterRegistry meterRegistry;
+    private final RowCountEstimator rowCountEstimator;
 
+    @Transactional(readOnly = true)
     @Override
     public BeerOrderPagedList listOrders(UUID customerId, Pageable pageable) {
-        Optional<Customer> customerOptional = customerRepository.findById(customerId);
+        return listOrders(customerId, pageable, CountMode.EXACT);
+    }
 
-        if (customerOptional.isPresent()) {
-            Page<BeerOrder> beerOrderPage =
-                    beerOrderRepository.findAllByCustomer(customerOptional.get(), pageable);
-
-            return new BeerOrderPagedList(beerOrderPage
-                    .stream()
-                    .map(beerOrderMapper::beerOrderToDto)
-                    .collect(Collectors.toList()), PageRequest.of(
-                    beerOrderPage.getPageable().getPageNumber(),
-                    beerOrderPage.getPageable().getPageSize()),
-                    beerOrderPage.getTotalElements());
+    @Transactional(readOnly = true)
+    @Override
+    public BeerOrderPagedList listOrders(UUID customerId, Pageable pageable, CountMode countMode) {
+        long statements = QueryCountInspector.count();
+
+        if (customerRepository.existsById(customerId)) {
+            Slice<UUID> beerOrderIds = countMode == CountMode.EXACT
+                    ? beerOrderRepository.findAllIdsByCustomerId(customerId, pageable)
+                    : beerOrderRepository.findIdSliceByCustomerId(customerId, pageable);
+
+            return toPagedList(beerOrderIds, rowCountEstimator.total(beerOrderIds, countMode, "beerOrder",
+                    List.of(customerId), () -> beerOrderRepository.countByCustomerId(customerId)), countMode, statements);
         } else {
             return null;
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public BeerOrderPagedList listOrders(Pageable pageable) {
-        Page<BeerOrder> beerOrderPage = beerOrderRepository.findAll(pageable);
+        return listOrders(pageable, CountMode.EXACT);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BeerOrderPagedList listOrders(Pageable pageable, CountMode countMode) {
+        long statements = QueryCountInspector.count();
+        Slice<UUID> beerOrderIds = countMode == CountMode.EXACT
+                ? beerOrderRepository.findAllIds(pageable)
+                : beerOrderRepository.findIdSlice(pageable);
 
-        return new BeerOrderPagedList(beerOrderPage
-                .stream()
-                .map(beerOrderMapper::beerOrderToDto)
-                .collect(Collectors.toList()), PageRequest.of(
-                beerOrderPage.getPageable().getPageNumber(),
-                beerOrderPage.getPageable().getPageSize()),
-                beerOrderPage.getTotalElements());
+        return toPagedList(beerOrderIds, rowCountEstimator.total(beerOrderIds, countMode, "beerOrder",
+                List.of(), beerOrderRepository::count), countMode, statements);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BeerOrderPagedList listOrders(UUID customerId, KeysetCursor cursor, int pageSize) {
+        long statements = QueryCountInspector.count();
+
+        if (customerRepository.existsById(customerId)) {
+            return toKeysetPage(beerOrderRepository.findIdsByCustomerIdAfter(customerId,
+                    cursor.getCreatedDate(), cursor.getId(), PageRequest.of(0, pageSize + 1)), pageSize, statements);
+        } else {
+            return null;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BeerOrderPagedList listOrders(KeysetCursor cursor, int pageSize) {
+        long statements = QueryCountInspector.count();
+
+        return toKeysetPage(beerOrderRepository.findIdsAfter(cursor.getCreatedDate(), cursor.getId(),
+                PageRequest.of(0, pageSize + 1)), pageSize, statements);
+    }
+
+    private BeerOrderPagedList toPagedList(Slice<UUID> beerOrderIdPage, long total, CountMode countMode,
+                                           long statementsBefore) {
+        List<BeerOrderDto> beerOrders = loadBeerOrders(beerOrderIdPage.getContent());
+
+        recordQueries(statementsBefore);
+
+        return new BeerOrderPagedList(beerOrders, PageRequest.of(
+                beerOrderIdPage.getPageable().getPageNumber(),
+                beerOrderIdPage.getPageable().getPageSize()),
+                total, countMode);
+    }
+
+    /**
+     * @param beerOrderIds up to pageSize + 1 ids, the extra one only tells there is a next page
+     */
+    private BeerOrderPagedList toKeysetPage(List<UUID> beerOrderIds, int pageSize, long statementsBefore) {
+        boolean hasNext = beerOrderIds.size() > pageSize;
+        List<BeerOrderDto> beerOrders = loadBeerOrders(hasNext ? beerOrderIds.subList(0, pageSize) : beerOrderIds);
+        String nextCursor = null;
+
+        if (hasNext && !beerOrders.isEmpty()) {
+            BeerOrderDto last = beerOrders.get(beerOrders.size() - 1);
+            nextCursor = new KeysetCursor(Timestamp.valueOf(last.getCreatedDate().toLocalDateTime()), last.getId()).encode();
+        }
+
+        recordQueries(statementsBefore);
+
+        return new BeerOrderPagedList(beerOrders, PageRequest.of(0, pageSize), nextCursor);
+    }
+
+    /**
+     * Builds the DTOs for one page of ids, in id order, from two projection queries (the orders, then all
+     * their lines) whatever the page size. No entity is loaded, so there is nothing to snapshot or flush.
+     */
+    private List<BeerOrderDto> loadBeerOrders(List<UUID> beerOrderIds) {
+        if (beerOrderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<UUID, BeerOrderDto> beerOrdersById = beerOrderRepository.findSummariesByIdIn(beerOrderIds).stream()
+                .collect(Collectors.toMap(BeerOrderSummary::getId, beerOrderMapper::beerOrderSummaryToDto));
+        addLines(beerOrdersById);
+
+        return beerOrderIds.stream()
+                .map(beerOrdersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOrders(UUID customerId, guru.sfg.brewery.web.model.OrderStatusEnum orderStatus,
+                             OffsetDateTime from, OffsetDateTime to, Consumer<BeerOrderDto> consumer) {
+        OrderStatusEnum status = orderStatus == null ? null : OrderStatusEnum.valueOf(orderStatus.name());
+        Pageable chunkRequest = PageRequest.of(0, BeerOrderRepository.EXPORT_CHUNK_SIZE);
+        List<BeerOrderSummary> chunk;
+        BeerOrderSummary last = null;
+
+        do {
+            Timestamp createdDate = last == null ? null : last.getCreatedDate();
+            UUID id = last == null ? null : last.getId();
+
+            chunk = customerId == null
+                    ? beerOrderRepository.findExportChunk(status, dateMapper.asTimestamp(from),
+                            dateMapper.asTimestamp(to), createdDate, id, chunkRequest)
+                    : beerOrderRepository.findExportChunkByCustomerId(customerId, status, dateMapper.asTimestamp(from),
+                            dateMapper.asTimestamp(to), createdDate, id, chunkRequest);
+
+            if (!chunk.isEmpty()) {
+                last = chunk.get(chunk.size() - 1);
+                exportChunk(chunk, consumer);
+            }
+        } while (chunk.size() == BeerOrderRepository.EXPORT_CHUNK_SIZE);
+    }
+
+    // one lines query per chunk of orders, then the chunk is handed over and dropped
+    private void exportChunk(List<BeerOrderSummary> chunk, Consumer<BeerOrderDto> consumer) {
+        Map<UUID, BeerOrderDto> beerOrdersById = new LinkedHashMap<>();
+        chunk.forEach(beerOrder -> beerOrdersById.put(beerOrder.getId(), beerOrderMapper.beerOrderSummaryToDto(beerOrder)));
+
+        addLines(beerOrdersById);
+        beerOrdersById.values().forEach(consumer);
+    }
+
+    private void addLines(Map<UUID, BeerOrderDto> beerOrdersById) {
+        beerOrdersById.values().forEach(beerOrder -> beerOrder.setBeerOrderLines(new ArrayList<>()));
+
+        for (BeerOrderLineSummary line : beerOrderLineRepository.findSummariesByBeerOrderIdIn(beerOrdersById.keySet())) {
+            beerOrdersById.get(line.getBeerOrderId()).getBeerOrderLines()
+                    .add(beerOrderLineMapper.beerOrderLineSummaryToDto(line));
+        }
+    }
+
+    private void recordQueries(long statementsBefore) {
+        meterRegistry.summary("beer.order.list.queries").record(QueryCountInspector.count() - statementsBefore);
     }
 
     @Transactional
@@ -102,42 +260,76 @@ public class BeerOrderServiceImpl implements BeerOrderService {
         throw new RuntimeException("Customer Not Found");
     }
 
+    /**
+     * One query for the order and its lines, matched on both ids. Only when it finds nothing is the customer
+     * checked, to tell a missing customer from an order that is missing or someone else's - both 404.
+     */
+    @Transactional(readOnly = true)
     @Override
     public BeerOrderDto getOrderById(UUID customerId, UUID orderId) {
-        return beerOrderMapper.beerOrderToDto(getOrder(customerId, orderId));
+        List<BeerOrderDetailRow> rows = beerOrderRepository.findOrderDetail(orderId, customerId);
+
+        if (rows.isEmpty()) {
+            if (!customerRepository.existsById(customerId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer Not Found. UUID: " + customerId);
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Beer Order Not Found. UUID: " + orderId);
+        }
+
+        BeerOrderDto beerOrderDto = beerOrderMapper.beerOrderSummaryToDto(rows.get(0));
+        beerOrderDto.setBeerOrderLines(rows.stream()
+                .filter(row -> row.getLineId() != null)
+                .map(beerOrderLineMapper::beerOrderDetailRowToDto)
+                .collect(Collectors.toList()));
+
+        return beerOrderDto;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public BeerOrderDto getOrderById(UUID orderId) {
-        BeerOrder beerOrder = beerOrderRepository.findOrderByIdSecure(orderId);
+        Optional<BeerOrderSummary> beerOrderOptional = beerOrderRepository.findOrderSummaryByIdSecure(orderId);
 
-        return beerOrderMapper.beerOrderToDto(beerOrder);
-    }
+        if (beerOrderOptional.isEmpty()) {
+            return null;
+        }
 
-    @Override
-    public void pickupOrder(UUID customerId, UUID orderId) {
-        BeerOrder beerOrder = getOrder(customerId, orderId);
-        beerOrder.setOrderStatus(OrderStatusEnum.PICKED_UP);
+        BeerOrderDto beerOrderDto = beerOrderMapper.beerOrderSummaryToDto(beerOrderOptional.get());
+        addLines(Map.of(beerOrderDto.getId(), beerOrderDto));
 
-        beerOrderRepository.save(beerOrder);
+        return beerOrderDto;
     }
 
-    private BeerOrder getOrder(UUID customerId, UUID orderId){
-        Optional<Customer> customerOptional = customerRepository.findById(customerId);
+    /**
+     * NEW or READY to PICKED_UP as one conditional update. Only when nothing was updated is the order's status
+     * read, to answer 404 (no such order for the customer) or 409 (already picked up). Timed as
+     * beer.order.transition, tagged with the target status and the outcome.
+     */
+    @Transactional
+    @Override
+    public void pickupOrder(UUID customerId, UUID orderId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "conflict";
 
-        if(customerOptional.isPresent()){
-            Optional<BeerOrder> beerOrderOptional = beerOrderRepository.findById(orderId);
+        try {
+            if (beerOrderRepository.transitionStatus(orderId, customerId, OrderStatusEnum.PICKED_UP, PICKUP_FROM,
+                    new Timestamp(System.currentTimeMillis())) == 1) {
+                outcome = "success";
+                return;
+            }
 
-            if(beerOrderOptional.isPresent()){
-                BeerOrder beerOrder = beerOrderOptional.get();
+            OrderStatusEnum orderStatus = beerOrderRepository.findOrderStatus(orderId, customerId).orElse(null);
 
-                // fall to exception if customer id's do not match - order not for customer
-                if(beerOrder.getCustomer().getId().equals(customerId)){
-                    return beerOrder;
-                }
+            if (orderStatus == null) {
+                outcome = "not_found";
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Beer Order Not Found. UUID: " + orderId);
             }
-            throw new RuntimeException("Beer Order Not Found");
+
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Beer Order " + orderId + " is " + orderStatus + ", cannot be picked up");
+        } finally {
+            sample.stop(meterRegistry.timer("beer.order.transition",
+                    "to", OrderStatusEnum.PICKED_UP.name(), "outcome", outcome));
         }
-        throw new RuntimeException("Customer Not Found");
     }
 }
@@ -20,14 +20,25 @@ package guru.sfg.brewery.services;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.BeerUpsertResult;
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
 import org.springframework.data.domain.PageRequest;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
 
 public interface BeerService {
 
     BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand);
 
+    BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand, CountMode countMode);
+
+    BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, KeysetCursor cursor, int pageSize, Boolean showInventoryOnHand);
+
+    BeerPagedList searchBeers(String query, PageRequest pageRequest);
+
     BeerDto findBeerById(UUID beerId,  Boolean showInventoryOnHand);
 
     BeerDto saveBeer(BeerDto beerDto);
@@ -37,4 +48,6 @@ public interface BeerService {
     void deleteById(UUID beerId);
 
     BeerDto findBeerByUpc(String upc);
+
+    List<BeerUpsertResult> upsertBeers(Iterator<BeerDto> beers);
 }
@@ -17,21 +17,31 @@
 
 package guru.sfg.brewery.services;
 
-import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.BeerSummary;
 import guru.sfg.brewery.web.mappers.BeerMapper;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.BeerUpsertResult;
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -43,67 +53,130 @@ public class BeerServiceImpl implements BeerService {
 
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final RowCountEstimator rowCountEstimator;
+    private final BeerCatalogCache beerCatalogCache;
+    private final BeerBulkUpsert beerBulkUpsert;
+    private final BeerNameIndex beerNameIndex;
 
     @Override
     public BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand) {
+        return beerCatalogCache.getPage(StringUtils.isEmpty(beerName) ? null : beerName, beerStyle,
+                pageRequest.getPageNumber(), pageRequest.getPageSize(), CountMode.EXACT, showInventoryOnHand,
+                () -> loadBeers(beerName, beerStyle, pageRequest, showInventoryOnHand));
+    }
+
+    private BeerPagedList loadBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand) {
 
         log.debug("Listing Beers");
 
-        BeerPagedList beerPagedList;
-        Page<Beer> beerPage;
-
-        if (!StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search both
-            beerPage = beerRepository.findAllByBeerNameAndBeerStyle(beerName, beerStyle, pageRequest);
-        } else if (!StringUtils.isEmpty(beerName) && StringUtils.isEmpty(beerStyle)) {
-            //search beer_service name
-            beerPage = beerRepository.findAllByBeerName(beerName, pageRequest);
-        } else if (StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search beer_service style
-            beerPage = beerRepository.findAllByBeerStyle(beerStyle, pageRequest);
-        } else {
-            beerPage = beerRepository.findAll(pageRequest);
+        String name = StringUtils.isEmpty(beerName) ? null : beerName;
+        Page<BeerDto> beerPage = showInventoryOnHand
+                ? beerRepository.findDetailPageByFilter(name, beerStyle, pageRequest).map(beerMapper::beerDetailToBeerDto)
+                : beerRepository.findSummaryPageByFilter(name, beerStyle, pageRequest).map(beerMapper::beerSummaryToBeerDto);
+
+        return new BeerPagedList(beerPage.getContent(),
+                PageRequest
+                        .of(beerPage.getPageable().getPageNumber(),
+                                beerPage.getPageable().getPageSize()),
+                beerPage.getTotalElements());
+    }
+
+    @Override
+    public BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand, CountMode countMode) {
+
+        if (countMode == CountMode.EXACT) {
+            return listBeers(beerName, beerStyle, pageRequest, showInventoryOnHand);
         }
 
-        if (showInventoryOnHand) {
-            beerPagedList = new BeerPagedList(beerPage
-                    .getContent()
-                    .stream()
-                    .map(beerMapper::beerToBeerDto)
-                    .collect(Collectors.toList()),
-                    PageRequest
-                            .of(beerPage.getPageable().getPageNumber(),
-                                    beerPage.getPageable().getPageSize()),
-                    beerPage.getTotalElements());
+        String name = StringUtils.isEmpty(beerName) ? null : beerName;
 
-        } else {
-            beerPagedList = new BeerPagedList(beerPage
-                    .getContent()
-                    .stream()
-                    .map(beerMapper::beerToBeerDto)
-                    .collect(Collectors.toList()),
-                    PageRequest
-                            .of(beerPage.getPageable().getPageNumber(),
-                                    beerPage.getPageable().getPageSize()),
-                    beerPage.getTotalElements());
+        return beerCatalogCache.getPage(name, beerStyle, pageRequest.getPageNumber(), pageRequest.getPageSize(),
+                countMode, showInventoryOnHand, () -> loadBeerSlice(name, beerStyle, pageRequest, showInventoryOnHand, countMode));
+    }
+
+    private BeerPagedList loadBeerSlice(String name, BeerStyleEnum beerStyle, PageRequest pageRequest,
+                                        Boolean showInventoryOnHand, CountMode countMode) {
+
+        log.debug("Listing Beers without count query");
+
+        Slice<BeerDto> beerSlice = showInventoryOnHand
+                ? beerRepository.findDetailSliceByFilter(name, beerStyle, pageRequest).map(beerMapper::beerDetailToBeerDto)
+                : beerRepository.findSummarySliceByFilter(name, beerStyle, pageRequest).map(beerMapper::beerSummaryToBeerDto);
+
+        return new BeerPagedList(beerSlice.getContent(),
+                PageRequest
+                        .of(beerSlice.getPageable().getPageNumber(),
+                                beerSlice.getPageable().getPageSize()),
+                rowCountEstimator.total(beerSlice, countMode, "beer", Arrays.asList(name, beerStyle),
+                        () -> beerRepository.countByFilter(name, beerStyle)),
+                countMode);
+    }
+
+    @Override
+    public BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, KeysetCursor cursor, int pageSize, Boolean showInventoryOnHand) {
+
+        log.debug("Listing Beers after cursor");
+
+        String name = StringUtils.isEmpty(beerName) ? null : beerName;
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<BeerDto> beers = showInventoryOnHand
+                ? beerRepository.findDetailsAfter(name, beerStyle, cursor.getCreatedDate(), cursor.getId(), pageRequest)
+                        .stream().map(beerMapper::beerDetailToBeerDto).collect(Collectors.toList())
+                : beerRepository.findSummariesAfter(name, beerStyle, cursor.getCreatedDate(), cursor.getId(), pageRequest)
+                        .stream().map(beerMapper::beerSummaryToBeerDto).collect(Collectors.toList());
+        String nextCursor = null;
+
+        // one extra row was asked for only to know whether there is a next page
+        if (beers.size() > pageSize) {
+            beers = beers.subList(0, pageSize);
+            BeerDto last = beers.get(pageSize - 1);
+            nextCursor = new KeysetCursor(Timestamp.valueOf(last.getCreatedDate().toLocalDateTime()), last.getId()).encode();
         }
-        return beerPagedList;
+
+        return new BeerPagedList(beers, PageRequest.of(0, pageSize), nextCursor);
+    }
+
+    /**
+     * The name index ranks the matches up to the end of the requested page, only the beers on that page are then
+     * read, by id.
+     */
+    @Override
+    public BeerPagedList searchBeers(String query, PageRequest pageRequest) {
+
+        log.debug("Searching Beers: " + query);
+
+        NameIndex.Matches matches = beerNameIndex.search(query,
+                (int) Math.min(pageRequest.getOffset() + pageRequest.getPageSize(), Integer.MAX_VALUE));
+        List<UUID> ranked = matches.getIds();
+        List<UUID> pageIds = ranked.subList((int) Math.min(pageRequest.getOffset(), ranked.size()), ranked.size());
+
+        List<BeerSummary> summaries = pageIds.isEmpty() ? Collections.emptyList()
+                : beerRepository.findSummariesByIdIn(pageIds);
+
+        List<BeerDto> beers = NameIndex.inRankOrder(pageIds, summaries, BeerSummary::getId).stream()
+                .map(beerMapper::beerSummaryToBeerDto)
+                .collect(Collectors.toList());
+
+        return new BeerPagedList(beers, PageRequest.of(pageRequest.getPageNumber(), pageRequest.getPageSize()),
+                matches.getTotal());
     }
 
     @Override
     public BeerDto findBeerById(UUID beerId, Boolean showInventoryOnHand) {
+        return beerCatalogCache.getById(beerId, showInventoryOnHand, id -> loadBeerById(id, showInventoryOnHand));
+    }
+
+    private BeerDto loadBeerById(UUID beerId, Boolean showInventoryOnHand) {
 
         log.debug("Finding Beer by id: " + beerId);
 
-        Optional<Beer> beerOptional = beerRepository.findById(beerId);
+        Optional<BeerDto> beerOptional = showInventoryOnHand
+                ? beerRepository.findDetailById(beerId).map(beerMapper::beerDetailToBeerDto)
+                : beerRepository.findSummaryById(beerId).map(beerMapper::beerSummaryToBeerDto);
 
         if (beerOptional.isPresent()) {
             log.debug("Found BeerId: " + beerId);
-            if(showInventoryOnHand) {
-                return beerMapper.beerToBeerDto(beerOptional.get());
-            } else {
-                return beerMapper.beerToBeerDto(beerOptional.get());
-            }
+            return beerOptional.get();
         } else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + beerId);
         }
@@ -114,19 +187,31 @@ public class BeerServiceImpl implements BeerService {
         return beerMapper.beerToBeerDto(beerRepository.save(beerMapper.beerDtoToBeer(beerDto)));
     }
 
+    /**
+     * One UPDATE, conditional on the version when the client sent one. Only when no row was updated is the beer
+     * looked up again, to tell a missing beer (404) from a stale version (409).
+     */
+    @Transactional
     @Override
     public void updateBeer(UUID beerId, BeerDto beerDto) {
-        Optional<Beer> beerOptional = beerRepository.findById(beerId);
-
-        beerOptional.ifPresentOrElse(beer -> {
-            beer.setBeerName(beerDto.getBeerName());
-            beer.setBeerStyle(beerDto.getBeerStyle());
-            beer.setPrice(beerDto.getPrice());
-            beer.setUpc(beerDto.getUpc());
-            beerRepository.save(beer);
-        }, () -> {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        int updated = beerDto.getVersion() == null
+                ? beerRepository.update(beerId, beerDto.getBeerName(), beerDto.getBeerStyle(), beerDto.getPrice(),
+                        beerDto.getUpc(), now)
+                : beerRepository.updateIfVersion(beerId, beerDto.getBeerName(), beerDto.getBeerStyle(),
+                        beerDto.getPrice(), beerDto.getUpc(), beerDto.getVersion().longValue(), now);
+
+        if (updated == 0) {
+            if (beerRepository.existsById(beerId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Version " + beerDto.getVersion() + " is stale. UUID: " + beerId);
+            }
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + beerId);
-        });
+        }
+
+        beerCatalogCache.evict(beerId);
+        beerNameIndex.put(beerId, beerDto.getBeerName());
     }
 
     @Override
@@ -136,6 +221,13 @@ public class BeerServiceImpl implements BeerService {
 
     @Override
     public BeerDto findBeerByUpc(String upc) {
-        return beerMapper.beerToBeerDto(beerRepository.findByUpc(upc));
+        return beerCatalogCache.getByUpc(upc, key -> beerRepository.findDetailByUpc(key)
+                .map(beerMapper::beerDetailToBeerDto)
+                .orElse(null));
+    }
+
+    @Override
+    public List<BeerUpsertResult> upsertBeers(Iterator<BeerDto> beers) {
+        return beerBulkUpsert.upsert(beers);
     }
 }
@@ -0,0 +1,79 @@
+package guru.sfg.brewery.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Token index of customer names: every word of a name, in a sorted map so a prefix is a range lookup. A customer
+ * matches when each word of the query starts one of the words of its name, so "jo do" finds "John Doe".
+ */
+@Component
+public class CustomerNameIndex extends NameIndex {
+
+    private static final Comparator<Match> BY_NAME = Comparator.comparing(Match::getName)
+            .thenComparing(Match::getId);
+
+    private final NavigableMap<String, Set<UUID>> tokens;
+
+    public CustomerNameIndex() {
+        this(new TreeMap<>());
+    }
+
+    private CustomerNameIndex(NavigableMap<String, Set<UUID>> tokens) {
+        super(tokens);
+        this.tokens = tokens;
+    }
+
+    /**
+     * @param limit how many of the first matches to return
+     * @return the first matches ordered by name, and how many customers matched. A blank query matches every
+     * customer.
+     */
+    public Matches search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            Collection<UUID> matches = names.keySet();
+
+            for (String queryToken : queryTokens) {
+                Set<UUID> customerIds = new HashSet<>();
+                tokens.subMap(queryToken, true, queryToken + Character.MAX_VALUE, true).values()
+                        .forEach(customerIds::addAll);
+                customerIds.retainAll(matches);
+                matches = customerIds;
+            }
+
+            return rank(matches, limit, name -> 0, BY_NAME);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected Collection<String> tokens(String name) {
+        return tokenize(name);
+    }
+
+    private static List<String> tokenize(String name) {
+        if (name == null) {
+            return List.of();
+        }
+
+        return Arrays.stream(name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
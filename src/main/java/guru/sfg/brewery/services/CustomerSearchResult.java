@@ -0,0 +1,32 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.repositories.CustomerSummary;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A page of customer search results. Paging stops at the search's result cap: totalElements is at most the cap,
+ * and {@link #isRefine()} tells the caller there were more matches than that.
+ */
+public class CustomerSearchResult extends PageImpl<CustomerSummary> {
+
+    private final long matches;
+
+    public CustomerSearchResult(List<CustomerSummary> content, Pageable pageable, long total, long matches) {
+        super(content, pageable, total);
+        this.matches = matches;
+    }
+
+    /**
+     * @return every customer matching the search, including those past the cap
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    public boolean isRefine() {
+        return matches > getTotalElements();
+    }
+}
@@ -0,0 +1,8 @@
+package guru.sfg.brewery.services;
+
+import org.springframework.data.domain.PageRequest;
+
+public interface CustomerService {
+
+    CustomerSearchResult searchCustomers(String customerName, PageRequest pageRequest);
+}
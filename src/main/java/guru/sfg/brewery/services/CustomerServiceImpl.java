@@ -0,0 +1,50 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.CustomerSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class CustomerServiceImpl implements CustomerService {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerNameIndex customerNameIndex;
+    private final int maxResults;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository, CustomerNameIndex customerNameIndex,
+                               @Value("${sfg.customer.search.max-results:100}") int maxResults) {
+        this.customerRepository = customerRepository;
+        this.customerNameIndex = customerNameIndex;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * The name index orders the matches up to the end of the requested page, only the customers on that page are
+     * then read, as id, name and created date. No more than max-results matches can be paged through.
+     */
+    @Override
+    public CustomerSearchResult searchCustomers(String customerName, PageRequest pageRequest) {
+
+        log.debug("Searching Customers: " + customerName);
+
+        NameIndex.Matches matches = customerNameIndex.search(customerName,
+                (int) Math.min(pageRequest.getOffset() + pageRequest.getPageSize(), maxResults));
+        List<UUID> first = matches.getIds();
+        List<UUID> pageIds = first.subList((int) Math.min(pageRequest.getOffset(), first.size()), first.size());
+
+        List<CustomerSummary> customers = pageIds.isEmpty() ? Collections.emptyList()
+                : NameIndex.inRankOrder(pageIds, customerRepository.findSummariesByIdIn(pageIds),
+                        CustomerSummary::getId);
+
+        return new CustomerSearchResult(customers, pageRequest, Math.min(matches.getTotal(), maxResults),
+                matches.getTotal());
+    }
+}
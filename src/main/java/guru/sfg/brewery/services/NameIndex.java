@@ -0,0 +1,199 @@
+package guru.sfg.brewery.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of names, so a name search never scans a table. Holds every id's name, trimmed and lower-cased,
+ * and the ids under each token of it. What a token is, and how a query is matched and ranked, is up to the
+ * subclass. Filled at startup by {@link NameIndexLoader} and kept current by {@link NameIndexListener}. Changes
+ * made inside a transaction are applied once it commits, so a rolled back rename never shows up in search.
+ */
+@Slf4j
+public abstract class NameIndex {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected final Map<UUID, String> names = new HashMap<>();
+    protected final Map<String, Set<UUID>> postings;
+
+    protected NameIndex(Map<String, Set<UUID>> postings) {
+        this.postings = postings;
+    }
+
+    public void put(UUID id, String name) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+                add(id, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(UUID id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void rebuild(Map<UUID, String> allNames) {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+            allNames.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug(getClass().getSimpleName() + " indexed " + allNames.size() + " names");
+    }
+
+    public <T> void rebuild(Collection<T> rows, Function<T, UUID> id, Function<T, String> name) {
+        // names may be null, which Collectors.toMap does not allow
+        Map<UUID, String> allNames = new HashMap<>();
+        rows.forEach(row -> allNames.put(id.apply(row), name.apply(row)));
+
+        rebuild(allNames);
+    }
+
+    /**
+     * @return rows in the order of the ranked ids, one removed since it was ranked is left out
+     */
+    public static <T> List<T> inRankOrder(List<UUID> ids, Collection<T> rows, Function<T, UUID> id) {
+        Map<UUID, T> rowsById = rows.stream().collect(Collectors.toMap(id, Function.identity()));
+
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the distinct tokens of a normalized name
+     */
+    protected abstract Collection<String> tokens(String name);
+
+    /**
+     * Keeps the best {@code limit} candidates in a bounded heap, so a query matching most names does not sort
+     * them all. Call with the read lock held.
+     *
+     * @param position where the query matches a candidate's name, negative when it does not
+     */
+    protected Matches rank(Collection<UUID> candidates, int limit, ToIntFunction<String> position,
+                           Comparator<Match> bestFirst) {
+        // worst of the best so far on top
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.max(1, Math.min(limit, candidates.size())),
+                bestFirst.reversed());
+        int total = 0;
+
+        for (UUID id : candidates) {
+            String name = names.get(id);
+            int at = position.applyAsInt(name);
+
+            if (at < 0) {
+                continue;
+            }
+            total++;
+
+            if (best.size() < limit) {
+                best.add(new Match(id, name, at));
+            } else if (limit > 0) {
+                Match match = new Match(id, name, at);
+                if (bestFirst.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(bestFirst);
+
+        return new Matches(ranked.stream().map(Match::getId).collect(Collectors.toList()), total);
+    }
+
+    private void add(UUID id, String rawName) {
+        String name = normalize(rawName);
+        names.put(id, name);
+        tokens(name).forEach(token -> postings.computeIfAbsent(token, key -> new HashSet<>()).add(id));
+    }
+
+    private void unindex(UUID id) {
+        String name = names.remove(id);
+
+        if (name != null) {
+            tokens(name).forEach(token -> {
+                Set<UUID> ids = postings.get(token);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    protected static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The best matches of a search, and how many matched in all.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Matches {
+        private final List<UUID> ids;
+        private final int total;
+    }
+
+    // sort keys computed once per matching name
+    @Getter
+    @RequiredArgsConstructor
+    protected static class Match {
+        private final UUID id;
+        private final String name;
+        private final int position;
+    }
+}
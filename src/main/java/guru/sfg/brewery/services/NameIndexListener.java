@@ -0,0 +1,40 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.Customer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on {@link Beer} and {@link Customer} keeping their name index current.
+ */
+@RequiredArgsConstructor
+@Component
+public class NameIndexListener {
+
+    private final BeerNameIndex beerNameIndex;
+    private final CustomerNameIndex customerNameIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Beer) {
+            beerNameIndex.put(((Beer) entity).getId(), ((Beer) entity).getBeerName());
+        } else if (entity instanceof Customer) {
+            customerNameIndex.put(((Customer) entity).getId(), ((Customer) entity).getCustomerName());
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Beer) {
+            beerNameIndex.remove(((Beer) entity).getId());
+        } else if (entity instanceof Customer) {
+            customerNameIndex.remove(((Customer) entity).getId());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.BeerSummary;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.CustomerSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the name indexes once the application is up, after the bootstrap data is in. Kept apart from the
+ * indexes so the entity listener using them does not depend on a repository.
+ */
+@RequiredArgsConstructor
+@Component
+public class NameIndexLoader {
+
+    private final BeerRepository beerRepository;
+    private final BeerNameIndex beerNameIndex;
+    private final CustomerRepository customerRepository;
+    private final CustomerNameIndex customerNameIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        beerNameIndex.rebuild(beerRepository.findAllSummaries(), BeerSummary::getId, BeerSummary::getBeerName);
+        customerNameIndex.rebuild(customerRepository.findAllSummaries(),
+                CustomerSummary::getId, CustomerSummary::getCustomerName);
+    }
+}
@@ -0,0 +1,161 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * JPA entity listener on {@link BeerInventory} keeping Beer.quantityOnHand equal to the sum of the beer's
+ * inventory. The callbacks run in the middle of a flush, when batched inserts of the beer or the inventory may
+ * not have reached the database yet, so each change is only added to the session's net difference per beer. Those
+ * are written with one relative bulk UPDATE per beer after the last flush, just before the transaction commits, and
+ * so commit or roll back with the inventory change. Concurrent changes cannot overwrite each other's adjustment.
+ *
+ * A beer already loaded in the session gets the difference in memory straight away.
+ */
+@RequiredArgsConstructor
+@Component
+public class QuantityOnHandListener {
+
+    static final String ADJUST_QUANTITY_ON_HAND =
+            "update Beer b set b.quantityOnHand = b.quantityOnHand + :difference where b.id = :beerId";
+
+    // looked up per call, the entity manager factory is still being built when this listener is created
+    private final ObjectProvider<EntityManager> entityManager;
+
+    @PostLoad
+    public void loaded(BeerInventory inventory) {
+        counted(inventory);
+    }
+
+    @PostPersist
+    public void persisted(BeerInventory inventory) {
+        adjust(beerId(inventory), quantity(inventory));
+        counted(inventory);
+    }
+
+    @PostUpdate
+    public void updated(BeerInventory inventory) {
+        if (Objects.equals(inventory.getCountedBeerId(), beerId(inventory))) {
+            adjust(beerId(inventory), quantity(inventory) - inventory.getCountedQuantity());
+        } else {
+            adjust(inventory.getCountedBeerId(), -inventory.getCountedQuantity());
+            adjust(beerId(inventory), quantity(inventory));
+        }
+        counted(inventory);
+    }
+
+    @PostRemove
+    public void removed(BeerInventory inventory) {
+        adjust(inventory.getCountedBeerId(), -inventory.getCountedQuantity());
+    }
+
+    private void adjust(UUID beerId, int difference) {
+        if (beerId == null || difference == 0) {
+            return;
+        }
+
+        SessionImplementor session = entityManager.getObject().unwrap(SessionImplementor.class);
+        pendingAdjustments(session).add(beerId, difference);
+
+        // not written by Hibernate (the column is not updatable), only keeps the session's copy current
+        Beer managed = managedBeer(session, beerId);
+        if (managed != null && managed.getQuantityOnHand() != null) {
+            managed.setQuantityOnHand(managed.getQuantityOnHand() + difference);
+        }
+    }
+
+    /**
+     * One set of adjustments per session, looked up through the transaction so every change in it is merged.
+     */
+    private PendingAdjustments pendingAdjustments(SessionImplementor session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingAdjustments adjustments = new PendingAdjustments();
+            session.getActionQueue().registerProcess(adjustments);
+            return adjustments;
+        }
+
+        PendingAdjustments pending = (PendingAdjustments) TransactionSynchronizationManager.getResource(session);
+
+        if (pending == null) {
+            pending = new PendingAdjustments();
+            session.getActionQueue().registerProcess(pending);
+            TransactionSynchronizationManager.bindResource(session, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(session);
+                }
+            });
+        }
+
+        return pending;
+    }
+
+    private Beer managedBeer(SessionImplementor session, UUID beerId) {
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Beer.class);
+        EntityKey key = session.generateEntityKey(beerId, persister);
+
+        return (Beer) session.getPersistenceContext().getEntity(key);
+    }
+
+    private void counted(BeerInventory inventory) {
+        inventory.setCountedBeerId(beerId(inventory));
+        inventory.setCountedQuantity(quantity(inventory));
+    }
+
+    private UUID beerId(BeerInventory inventory) {
+        return inventory.getBeer() != null ? inventory.getBeer().getId() : null;
+    }
+
+    private int quantity(BeerInventory inventory) {
+        return inventory.getQuantityOnHand() != null ? inventory.getQuantityOnHand() : 0;
+    }
+
+    /**
+     * Net difference per beer, in id order so concurrent transactions lock beer rows in the same order.
+     */
+    static class PendingAdjustments implements BeforeTransactionCompletionProcess {
+        private final Map<UUID, Integer> differences = new TreeMap<>();
+
+        void add(UUID beerId, int difference) {
+            differences.merge(beerId, difference, Integer::sum);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            // the bulk UPDATE auto flushes, which may add more
+            while (!differences.isEmpty()) {
+                Map<UUID, Integer> batch = new TreeMap<>(differences);
+                differences.clear();
+
+                batch.forEach((beerId, difference) -> {
+                    if (difference != 0) {
+                        session.createQuery(ADJUST_QUANTITY_ON_HAND)
+                                .setParameter("difference", difference)
+                                .setParameter("beerId", beerId)
+                                .executeUpdate();
+                    }
+                });
+            }
+        }
+    }
+}
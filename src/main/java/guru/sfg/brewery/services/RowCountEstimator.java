@@ -0,0 +1,82 @@
+package guru.sfg.brewery.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import guru.sfg.brewery.web.model.CountMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Works out the total for a list page according to its {@link CountMode}. Estimated counts are kept per
+ * (list, filter values) and recounted in the background once older than the refresh interval; the stale value
+ * is served meanwhile. Filter combinations nobody asks for expire.
+ */
+@Component
+public class RowCountEstimator {
+
+    public static final String CACHE_NAME = "rowCountCache";
+
+    private final LoadingCache<CountQuery, Long> counts;
+
+    public RowCountEstimator(MeterRegistry meterRegistry,
+                             @Value("${sfg.list.estimated-count.refresh:1m}") Duration refresh,
+                             @Value("${sfg.list.estimated-count.max-size:1000}") long maxSize) {
+        LoadingCache<CountQuery, Long> counts = Caffeine.newBuilder()
+                .refreshAfterWrite(refresh)
+                .expireAfterAccess(refresh.multipliedBy(10))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(CountQuery::count);
+
+        this.counts = CaffeineCacheMetrics.monitor(meterRegistry, counts, CACHE_NAME);
+    }
+
+    /**
+     * @param page    a {@link Page} in exact mode, otherwise a {@link Slice} read without a count query
+     * @param list    name of the list the filters apply to
+     * @param filters filter values, part of the cache key
+     * @param counter the count query for these filters, only run in estimated mode
+     */
+    public long total(Slice<?> page, CountMode countMode, String list, List<?> filters, LongSupplier counter) {
+        if (page instanceof Page) {
+            return ((Page<?>) page).getTotalElements();
+        }
+
+        long seen = page.getPageable().getOffset() + page.getNumberOfElements();
+
+        // on the last slice the total is known exactly
+        if (!page.hasNext()) {
+            return seen;
+        }
+
+        if (countMode == CountMode.ESTIMATED) {
+            return Math.max(seen + 1, counts.get(new CountQuery(list, filters, counter)));
+        }
+
+        return seen + 1;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class CountQuery {
+        private final String list;
+        private final List<?> filters;
+
+        @EqualsAndHashCode.Exclude
+        private final LongSupplier counter;
+
+        long count() {
+            return counter.getAsLong();
+        }
+    }
+}
@@ -24,10 +24,9 @@ import guru.sfg.brewery.repositories.BeerRepository;
 import guru.sfg.brewery.security.perms.BeerCreatePermission;
 import guru.sfg.brewery.security.perms.BeerReadPermission;
 import guru.sfg.brewery.security.perms.BeerUpdatePermission;
+import guru.sfg.brewery.services.BeerNameIndex;
+import guru.sfg.brewery.services.NameIndex;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -49,6 +48,7 @@ public class BeerController {
 
     private final BeerRepository beerRepository;
     private final BeerInventoryRepository beerInventoryRepository;
+    private final BeerNameIndex beerNameIndex;
 
 
     //@PreAuthorize("hasAuthority('beer.read')")
@@ -66,8 +66,7 @@ public class BeerController {
         // find beers by name
         //ToDO: Add Service
         //ToDO: Get paging data from view
-        Page<Beer> pagedResult = beerRepository.findAllByBeerNameIsLike("%" + beer.getBeerName() + "%", createPageRequest(0, 10, Sort.Direction.DESC, "beerName"));
-        List<Beer> beerList = pagedResult.getContent();
+        List<Beer> beerList = findAllInOrder(beerNameIndex.search(beer.getBeerName(), 10).getIds());
         if (beerList.isEmpty()) {
             // no beers found
             result.rejectValue("beerName", "notFound", "not found");
@@ -84,13 +83,18 @@ public class BeerController {
     }
 
 
+    // best match first, as ranked by the name index
+    private List<Beer> findAllInOrder(List<UUID> beerIds) {
+        return NameIndex.inRankOrder(beerIds, beerRepository.findAllById(beerIds), Beer::getId);
+    }
+
     //@PreAuthorize("hasAuthority('beer.read')")
     @BeerReadPermission
     @GetMapping("/{beerId}")
     public ModelAndView showBeer(@PathVariable UUID beerId) {
         ModelAndView mav = new ModelAndView("beers/beerDetails");
         //ToDO: Add Service
-        mav.addObject(beerRepository.findById(beerId).get());
+        mav.addObject(beerRepository.findWithInventoryById(beerId).get());
         return mav;
     }
 
@@ -124,8 +128,7 @@ public class BeerController {
     @BeerUpdatePermission
     @GetMapping("/{beerId}/edit")
     public String initUpdateBeerForm(@PathVariable UUID beerId, Model model) {
-        if (beerRepository.findById(beerId).isPresent())
-            model.addAttribute("beer", beerRepository.findById(beerId).get());
+        beerRepository.findById(beerId).ifPresent(beer -> model.addAttribute("beer", beer));
         return "beers/createOrUpdateBeer";
     }
 
@@ -141,12 +144,6 @@ public class BeerController {
             return "redirect:/beers/" + savedBeer.getId();
         }
     }
-
-    private PageRequest createPageRequest(int page, int size, Sort.Direction sortDirection, String propertyName) {
-        return PageRequest.of(page,
-                size,
-                Sort.by(sortDirection, propertyName));
-    }
 }
 
 
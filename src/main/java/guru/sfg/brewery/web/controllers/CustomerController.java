@@ -22,7 +22,10 @@ import guru.sfg.brewery.repositories.CustomerRepository;
 import guru.sfg.brewery.security.perms.CustomerCreatePermission;
 import guru.sfg.brewery.security.perms.CustomerReadPermission;
 import guru.sfg.brewery.security.perms.CustomerUpdatePermission;
+import guru.sfg.brewery.services.CustomerSearchResult;
+import guru.sfg.brewery.services.CustomerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -30,10 +33,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -41,8 +44,11 @@ import java.util.UUID;
 @Controller
 public class CustomerController {
 
+    private static final int PAGE_SIZE = 25;
+
     //ToDO: Add service
     private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
 
     //@PreAuthorize("hasAuthority('customer.read')")
     @CustomerReadPermission
@@ -57,21 +63,26 @@ public class CustomerController {
     // @PreAuthorize("hasAuthority('customer.read')") // better than 'new way'
     @CustomerReadPermission // refactor the 'new way'
     @GetMapping
-    public String processFindFormReturnMany(Customer customer, BindingResult result, Model model){
+    public String processFindFormReturnMany(Customer customer, BindingResult result, Model model,
+                                            @RequestParam(value = "pageNumber", required = false) Integer pageNumber){
         // find customers by name
-        //ToDO: Add Service
-        List<Customer> customers = customerRepository.findAllByCustomerNameLike("%" + customer.getCustomerName() + "%");
-        if (customers.isEmpty()) {
+        if (pageNumber == null || pageNumber < 0) {
+            pageNumber = 0;
+        }
+
+        CustomerSearchResult customers = customerService.searchCustomers(customer.getCustomerName(),
+                PageRequest.of(pageNumber, PAGE_SIZE));
+        if (customers.getMatches() == 0) {
             // no customers found
             result.rejectValue("customerName", "notFound", "not found");
             return "customers/findCustomers";
-        } else if (customers.size() == 1) {
+        } else if (customers.getMatches() == 1 && customers.hasContent()) {
             // 1 customer found
-            customer = customers.get(0);
-            return "redirect:/customers/" + customer.getId();
+            return "redirect:/customers/" + customers.getContent().get(0).getId();
         } else {
-            // multiple customers found
-            model.addAttribute("selections", customers);
+            // multiple customers found, a page at a time
+            model.addAttribute("selections", customers.getContent());
+            model.addAttribute("page", customers);
             return "customers/customerList";
         }
     }
@@ -82,7 +93,8 @@ public class CustomerController {
     public ModelAndView showCustomer(@PathVariable UUID customerId) {
         ModelAndView mav = new ModelAndView("customers/customerDetails");
         //ToDO: Add Service
-        mav.addObject(customerRepository.findById(customerId).get());
+        // the details page shows name and created date only, users and orders are never read
+        mav.addObject("customer", customerRepository.findSummaryById(customerId).get());
         return mav;
     }
 
@@ -112,8 +124,7 @@ public class CustomerController {
     @CustomerUpdatePermission
     @GetMapping("/{customerId}/edit")
     public String initUpdateCustomerForm(@PathVariable UUID customerId, Model model) {
-       if(customerRepository.findById(customerId).isPresent())
-          model.addAttribute("customer", customerRepository.findById(customerId).get());
+       customerRepository.findById(customerId).ifPresent(customer -> model.addAttribute("customer", customer));
        return "customers/createOrUpdateCustomer";
    }
 
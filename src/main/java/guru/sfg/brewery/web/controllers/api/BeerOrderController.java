@@ -4,13 +4,17 @@ import guru.sfg.brewery.security.perms.BeerOrderCreatePermission;
 import guru.sfg.brewery.security.perms.BeerOrderPickupPermission;
 import guru.sfg.brewery.security.perms.BeerOrderReadPermission;
 import guru.sfg.brewery.services.BeerOrderService;
+import guru.sfg.brewery.web.mappers.UnknownBeerException;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Beer Order Controller
@@ -33,7 +37,9 @@ public class BeerOrderController {
     @GetMapping("orders")
     public BeerOrderPagedList listOrders(@PathVariable("customerId") UUID customerId,
                                          @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
-                                         @RequestParam(value = "pageSize", required = false) Integer pageSize){
+                                         @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "countMode", required = false) String countMode){
 
         if (pageNumber == null || pageNumber < 0){
             pageNumber = DEFAULT_PAGE_NUMBER;
@@ -43,7 +49,13 @@ public class BeerOrderController {
             pageSize = DEFAULT_PAGE_SIZE;
         }
 
-        return beerOrderService.listOrders(customerId, PageRequest.of(pageNumber, pageSize));
+        // cursor mode, an empty cursor starts at the oldest order
+        if (cursor != null) {
+            return beerOrderService.listOrders(customerId, ListRequestParams.cursor(cursor), pageSize);
+        }
+
+        return beerOrderService.listOrders(customerId, PageRequest.of(pageNumber, pageSize),
+                ListRequestParams.countMode(countMode));
     }
 
     //@PreAuthorize("hasAuthority('order.create') OR hasAuthority('customer.order.create') AND @beerOrderAuthenticationManager.customerIdMatches(authentication, #customerId)")
@@ -67,4 +79,13 @@ public class BeerOrderController {
     public void pickupOrder(@PathVariable("customerId") UUID customerId, @PathVariable("orderId") UUID orderId){
         beerOrderService.pickupOrder(customerId, orderId);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(UnknownBeerException.class)
+    ResponseEntity<List<String>> unknownBeerHandler(UnknownBeerException e){
+        List<String> errors = e.getBeerIds().stream()
+                .map(beerId -> "beerOrderLines.beerId : unknown beer " + beerId)
+                .collect(Collectors.toList());
+
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+}
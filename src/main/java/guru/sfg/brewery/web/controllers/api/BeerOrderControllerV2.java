@@ -1,18 +1,28 @@
 package guru.sfg.brewery.web.controllers.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.security.perms.BeerOrderReadPermissionV2;
 import guru.sfg.brewery.services.BeerOrderService;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
+import guru.sfg.brewery.web.model.OrderStatusEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
@@ -27,13 +37,18 @@ public class BeerOrderControllerV2 {
     private static final Integer DEFAULT_PAGE_NUMBER = 0;
     private static final Integer DEFAULT_PAGE_SIZE = 25;
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final BeerOrderService beerOrderService;
+    private final ObjectMapper objectMapper;
 
     @BeerOrderReadPermissionV2
     @GetMapping
     public BeerOrderPagedList listOrders(@AuthenticationPrincipal User user,
                                          @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
-                                         @RequestParam(value = "pageSize", required = false) Integer pageSize){
+                                         @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "countMode", required = false) String countMode){
 
         if (pageNumber == null || pageNumber < 0){
             pageNumber = DEFAULT_PAGE_NUMBER;
@@ -43,13 +58,54 @@ public class BeerOrderControllerV2 {
             pageSize = DEFAULT_PAGE_SIZE;
         }
 
+        // cursor mode, an empty cursor starts at the oldest order
+        if (cursor != null) {
+            KeysetCursor keysetCursor = ListRequestParams.cursor(cursor);
+
+            if (user.getCustomer() != null) {
+                return beerOrderService.listOrders(user.getCustomer().getId(), keysetCursor, pageSize);
+            } else {
+                return beerOrderService.listOrders(keysetCursor, pageSize);
+            }
+        }
+
+        CountMode mode = ListRequestParams.countMode(countMode);
+
         if (user.getCustomer() != null) {
-            return beerOrderService.listOrders(user.getCustomer().getId(), PageRequest.of(pageNumber, pageSize));
+            return beerOrderService.listOrders(user.getCustomer().getId(), PageRequest.of(pageNumber, pageSize), mode);
         } else {
-            return beerOrderService.listOrders(PageRequest.of(pageNumber, pageSize));
+            return beerOrderService.listOrders(PageRequest.of(pageNumber, pageSize), mode);
         }
     }
 
+    /**
+     * Every order matching the filters as newline delimited JSON, oldest first, written while it is read so memory
+     * use does not grow with the number of orders. Customers only get their own orders.
+     */
+    @BeerOrderReadPermissionV2
+    @GetMapping(path = "export", produces = NDJSON)
+    public void exportOrders(@AuthenticationPrincipal User user,
+                             @RequestParam(value = "status", required = false) OrderStatusEnum status,
+                             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                             HttpServletResponse response) throws IOException {
+
+        response.setContentType(NDJSON);
+        ServletOutputStream out = response.getOutputStream();
+
+        beerOrderService.exportOrders(user.getCustomer() != null ? user.getCustomer().getId() : null, status, from, to,
+                beerOrder -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(beerOrder));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        out.flush();
+    }
+
     @BeerOrderReadPermissionV2
     @GetMapping("{orderId}")
     public BeerOrderDto getOrder(@PathVariable("orderId") UUID orderId){
@@ -17,14 +17,20 @@
 
 package guru.sfg.brewery.web.controllers.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import guru.sfg.brewery.security.perms.BeerCreatePermission;
 import guru.sfg.brewery.security.perms.BeerDeletePermission;
 import guru.sfg.brewery.security.perms.BeerReadPermission;
 import guru.sfg.brewery.security.perms.BeerUpdatePermission;
+import guru.sfg.brewery.security.perms.BeerUpsertPermission;
 import guru.sfg.brewery.services.BeerService;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.BeerUpsertResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -35,6 +41,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -49,6 +57,7 @@ public class BeerRestController {
     private static final Integer DEFAULT_PAGE_SIZE = 25;
 
     private final BeerService beerService;
+    private final ObjectMapper objectMapper;
 
     //@PreAuthorize("hasAuthority('beer.read')")
     @BeerReadPermission
@@ -57,7 +66,9 @@ public class BeerRestController {
                                                    @RequestParam(value = "pageSize", required = false) Integer pageSize,
                                                    @RequestParam(value = "beerName", required = false) String beerName,
                                                    @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
-                                                   @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
+                                                   @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand,
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   @RequestParam(value = "countMode", required = false) String countMode){
 
         log.debug("Listing Beers");
 
@@ -73,11 +84,37 @@ public class BeerRestController {
             pageSize = DEFAULT_PAGE_SIZE;
         }
 
-        BeerPagedList beerList = beerService.listBeers(beerName, beerStyle, PageRequest.of(pageNumber, pageSize), showInventoryOnHand);
+        BeerPagedList beerList;
+
+        // cursor mode, an empty cursor starts at the oldest beer
+        if (cursor != null) {
+            beerList = beerService.listBeers(beerName, beerStyle, ListRequestParams.cursor(cursor), pageSize, showInventoryOnHand);
+        } else {
+            beerList = beerService.listBeers(beerName, beerStyle, PageRequest.of(pageNumber, pageSize), showInventoryOnHand,
+                    ListRequestParams.countMode(countMode));
+        }
 
         return new ResponseEntity<>(beerList, HttpStatus.OK);
     }
 
+    //@PreAuthorize("hasAuthority('beer.read')")
+    @BeerReadPermission
+    @GetMapping(produces = { "application/json" }, path = "beer/search")
+    public ResponseEntity<BeerPagedList> searchBeers(@RequestParam(value = "q", required = false) String query,
+                                                     @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
+                                                     @RequestParam(value = "pageSize", required = false) Integer pageSize) {
+
+        if (pageNumber == null || pageNumber < 0){
+            pageNumber = DEFAULT_PAGE_NUMBER;
+        }
+
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        return new ResponseEntity<>(beerService.searchBeers(query, PageRequest.of(pageNumber, pageSize)), HttpStatus.OK);
+    }
+
     //@PreAuthorize("hasAuthority('beer.read')")
     @BeerReadPermission
     @GetMapping(path = {"beer/{beerId}"}, produces = { "application/json" })
@@ -115,6 +152,19 @@ public class BeerRestController {
         return new ResponseEntity(httpHeaders, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates or updates beers matched by UPC. The body is a JSON array or NDJSON of beers, read as it is processed.
+     * Answers one result per item in request order.
+     */
+    @BeerUpsertPermission
+    @PostMapping(path = "beer/bulk", consumes = { "application/json", "application/x-ndjson" }, produces = { "application/json" })
+    public ResponseEntity<List<BeerUpsertResult>> upsertBeers(InputStream body) throws IOException {
+
+        try (MappingIterator<BeerDto> beers = objectMapper.readerFor(BeerDto.class).readValues(body)) {
+            return new ResponseEntity<>(beerService.upsertBeers(beers), HttpStatus.OK);
+        }
+    }
+
     //@PreAuthorize("hasAuthority('beer.update')")
     @BeerUpdatePermission
     @PutMapping(path = {"beer/{beerId}"}, produces = { "application/json" })
@@ -135,6 +185,12 @@ public class BeerRestController {
         beerService.deleteById(beerId);
     }
 
+    // chunks before the malformed item have already been written
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    ResponseEntity<List> malformedBodyHandler(Exception e){
+        return new ResponseEntity<>(List.of(e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     ResponseEntity<List> badReqeustHandler(ConstraintViolationException e){
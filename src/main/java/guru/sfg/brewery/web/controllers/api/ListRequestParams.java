@@ -0,0 +1,31 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import guru.sfg.brewery.web.model.CountMode;
+import guru.sfg.brewery.web.model.KeysetCursor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Parsing of the list endpoint request parameters shared by the api controllers, bad values are a 400.
+ */
+final class ListRequestParams {
+
+    private ListRequestParams() {
+    }
+
+    static KeysetCursor cursor(String cursor) {
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static CountMode countMode(String countMode) {
+        try {
+            return CountMode.from(countMode);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "countMode must be exact, estimated or none");
+        }
+    }
+}
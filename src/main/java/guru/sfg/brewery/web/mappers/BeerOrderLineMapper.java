@@ -18,14 +18,30 @@
 package guru.sfg.brewery.web.mappers;
 
 import guru.sfg.brewery.domain.BeerOrderLine;
+import guru.sfg.brewery.repositories.BeerOrderDetailRow;
+import guru.sfg.brewery.repositories.BeerOrderLineSummary;
 import guru.sfg.brewery.web.model.BeerOrderLineDto;
 import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+import java.util.Set;
 
 @Mapper(uses = {DateMapper.class})
 @DecoratedWith(BeerOrderLineMapperDecorator.class)
 public interface BeerOrderLineMapper {
     BeerOrderLineDto beerOrderLineToDto(BeerOrderLine line);
 
+    BeerOrderLineDto beerOrderLineSummaryToDto(BeerOrderLineSummary line);
+
+    @Mapping(target = "id", source = "lineId")
+    @Mapping(target = "version", source = "lineVersion")
+    @Mapping(target = "createdDate", source = "lineCreatedDate")
+    @Mapping(target = "lastModifiedDate", source = "lineLastModifiedDate")
+    BeerOrderLineDto beerOrderDetailRowToDto(BeerOrderDetailRow row);
+
     BeerOrderLine dtoToBeerOrderLine(BeerOrderLineDto dto);
+
+    Set<BeerOrderLine> dtoToBeerOrderLines(List<BeerOrderLineDto> dtos);
 }
@@ -17,12 +17,22 @@
 
 package guru.sfg.brewery.web.mappers;
 
+import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.domain.BeerOrderLine;
 import guru.sfg.brewery.repositories.BeerRepository;
 import guru.sfg.brewery.web.model.BeerOrderLineDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public abstract class BeerOrderLineMapperDecorator implements BeerOrderLineMapper {
     private BeerRepository beerRepository;
     private BeerOrderLineMapper beerOrderLineMapper;
@@ -52,4 +62,43 @@ public abstract class BeerOrderLineMapperDecorator implements BeerOrderLineMappe
         beerOrderLine.setQuantityAllocated(0);
         return beerOrderLine;
     }
+
+    /**
+     * Resolves the beers for all lines with a single query instead of one lookup per line. Every unknown beer id
+     * is reported together in one {@link UnknownBeerException}.
+     */
+    @Override
+    public Set<BeerOrderLine> dtoToBeerOrderLines(List<BeerOrderLineDto> dtos) {
+        if (dtos == null) {
+            return null;
+        }
+
+        Set<UUID> beerIds = dtos.stream()
+                .map(BeerOrderLineDto::getBeerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<UUID, Beer> beers = beerRepository.findAllById(beerIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity(), (beer, duplicate) -> beer));
+
+        Set<UUID> unknownBeerIds = dtos.stream()
+                .map(BeerOrderLineDto::getBeerId)
+                .filter(beerId -> beerId == null || !beers.containsKey(beerId))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (!unknownBeerIds.isEmpty()) {
+            throw new UnknownBeerException(unknownBeerIds);
+        }
+
+        Set<BeerOrderLine> beerOrderLines = new LinkedHashSet<>(dtos.size());
+
+        dtos.forEach(dto -> {
+            BeerOrderLine beerOrderLine = beerOrderLineMapper.dtoToBeerOrderLine(dto);
+            beerOrderLine.setBeer(beers.get(dto.getBeerId()));
+            beerOrderLine.setQuantityAllocated(0);
+            beerOrderLines.add(beerOrderLine);
+        });
+
+        return beerOrderLines;
+    }
 }
@@ -18,13 +18,19 @@
 package guru.sfg.brewery.web.mappers;
 
 import guru.sfg.brewery.domain.BeerOrder;
+import guru.sfg.brewery.repositories.BeerOrderSummary;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(uses = {DateMapper.class, BeerOrderLineMapper.class})
 public interface BeerOrderMapper {
 
     BeerOrderDto beerOrderToDto(BeerOrder beerOrder);
 
+    // the lines come from their own query
+    @Mapping(target = "beerOrderLines", ignore = true)
+    BeerOrderDto beerOrderSummaryToDto(BeerOrderSummary beerOrderSummary);
+
     BeerOrder dtoToBeerOrder(BeerOrderDto dto);
 }
@@ -0,0 +1,20 @@
+package guru.sfg.brewery.web.mappers;
+
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Order lines referencing beers that do not exist. Carries every unknown id, not just the first one found.
+ */
+@Getter
+public class UnknownBeerException extends RuntimeException {
+
+    private final Set<UUID> beerIds;
+
+    public UnknownBeerException(Set<UUID> beerIds) {
+        super("Unknown beer ids: " + beerIds);
+        this.beerIds = beerIds;
+    }
+}
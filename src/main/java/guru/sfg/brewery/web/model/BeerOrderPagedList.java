@@ -1,33 +1,27 @@
-/*
- *  Copyright 2020 the original author or authors.
- *
- * This program is free software: you can redistribute it and/or modify
- *     it under the terms of the GNU General Public License as published by
- *     the Free Software Foundation, either version 3 of the License, or
- *     (at your option) any later version.
- *
- *     This program is distributed in the hope that it will be useful,
- *     but WITHOUT ANY WARRANTY; without even the implied warranty of
- *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- *     GNU General Public License for more details.
- *
- *     You should have received a copy of the GNU General Public License
- *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
- */
-
 package guru.sfg.brewery.web.model;
 
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
-public class BeerOrderPagedList extends PageImpl<BeerOrderDto> {
+public class BeerOrderPagedList extends PagedList<BeerOrderDto> {
+
     public BeerOrderPagedList(List<BeerOrderDto> content, Pageable pageable, long total) {
-        super(content, pageable, total);
+        this(content, pageable, total, CountMode.EXACT);
+    }
+
+    public BeerOrderPagedList(List<BeerOrderDto> content, Pageable pageable, long total, CountMode countMode) {
+        super(content, pageable, total, countMode, null);
+    }
+
+    /**
+     * Cursor mode - no count query is run.
+     */
+    public BeerOrderPagedList(List<BeerOrderDto> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, null, CountMode.NONE, nextCursor);
     }
 
     public BeerOrderPagedList(List<BeerOrderDto> content) {
-        super(content);
+        this(content, Pageable.unpaged(), content.size());
     }
 }
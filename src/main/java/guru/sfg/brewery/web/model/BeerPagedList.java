@@ -20,13 +20,13 @@ package guru.sfg.brewery.web.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
-public class BeerPagedList extends PageImpl<BeerDto> {
+public class BeerPagedList extends PagedList<BeerDto> {
+
     @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     public BeerPagedList(@JsonProperty("content") List<BeerDto> content,
                          @JsonProperty("number") int number,
@@ -34,19 +34,32 @@ public class BeerPagedList extends PageImpl<BeerDto> {
                          @JsonProperty("totalElements") Long totalElements,
                          @JsonProperty("pageable") JsonNode pageable,
                          @JsonProperty("last") boolean last,
-                         @JsonProperty("totalPages") int totalPages,
+                         @JsonProperty("totalPages") Integer totalPages,
                          @JsonProperty("sort") JsonNode sort,
                          @JsonProperty("first") boolean first,
-                         @JsonProperty("numberOfElements") int numberOfElements) {
+                         @JsonProperty("numberOfElements") int numberOfElements,
+                         @JsonProperty("countMode") CountMode countMode,
+                         @JsonProperty("nextCursor") String nextCursor) {
 
-        super(content, PageRequest.of(number, size), totalElements);
+        super(content, PageRequest.of(number, size), totalElements, countMode, nextCursor);
     }
 
     public BeerPagedList(List<BeerDto> content, Pageable pageable, long total) {
-        super(content, pageable, total);
+        this(content, pageable, total, CountMode.EXACT);
+    }
+
+    public BeerPagedList(List<BeerDto> content, Pageable pageable, long total, CountMode countMode) {
+        super(content, pageable, total, countMode, null);
+    }
+
+    /**
+     * Cursor mode - no count query is run.
+     */
+    public BeerPagedList(List<BeerDto> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, null, CountMode.NONE, nextCursor);
     }
 
     public BeerPagedList(List<BeerDto> content) {
-        super(content);
+        this(content, Pageable.unpaged(), content.size());
     }
 }
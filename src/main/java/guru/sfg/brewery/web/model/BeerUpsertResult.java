@@ -0,0 +1,28 @@
+package guru.sfg.brewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk beer upsert, index is its position in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerUpsertResult {
+
+    public enum Status {
+        CREATED, UPDATED, REJECTED
+    }
+
+    private int index;
+    private String upc;
+    private UUID beerId;
+    private Status status;
+    private String message;
+}
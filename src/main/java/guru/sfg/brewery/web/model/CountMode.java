@@ -0,0 +1,30 @@
+package guru.sfg.brewery.web.model;
+
+import java.util.Locale;
+
+/**
+ * How the total of a paged list is worked out.
+ */
+public enum CountMode {
+    /**
+     * COUNT(*) with every page.
+     */
+    EXACT,
+    /**
+     * Cached count per filter, refreshed in the background - may lag behind recent writes.
+     */
+    ESTIMATED,
+    /**
+     * No count - one extra row is read to tell whether there is a next page. The total only covers the rows up
+     * to this page (plus one when there are more).
+     */
+    NONE;
+
+    /**
+     * @param countMode exact, estimated or none in any case, null means exact
+     * @throws IllegalArgumentException for anything else
+     */
+    public static CountMode from(String countMode) {
+        return countMode == null ? EXACT : valueOf(countMode.trim().toUpperCase(Locale.ROOT));
+    }
+}
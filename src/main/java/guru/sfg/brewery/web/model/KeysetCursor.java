@@ -0,0 +1,49 @@
+package guru.sfg.brewery.web.model;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by (createdDate, id) - the next page starts right after it. Handed to clients as an
+ * opaque url-safe string, an empty string means start from the beginning.
+ */
+@Value
+public class KeysetCursor {
+
+    public static final KeysetCursor FIRST = new KeysetCursor(new Timestamp(0), new UUID(0, 0));
+
+    private static final char SEPARATOR = '_';
+
+    Timestamp createdDate;
+    UUID id;
+
+    public String encode() {
+        String position = createdDate.toInstant().toString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+
+            return new KeysetCursor(Timestamp.from(Instant.parse(position.substring(0, separator))),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
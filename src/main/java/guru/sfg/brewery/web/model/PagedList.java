@@ -0,0 +1,84 @@
+package guru.sfg.brewery.web.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page of a list endpoint, counted (see {@link CountMode}) or in cursor mode. A cursor page runs no count query,
+ * so it has no totalElements or totalPages, and it is the last page exactly when there is no next cursor.
+ */
+public abstract class PagedList<T> extends PageImpl<T> {
+
+    private final CountMode countMode;
+    private final String nextCursor;
+
+    // what the JSON reports, null in cursor mode
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long totalElements;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer totalPages;
+
+    /**
+     * @param totalElements null in cursor mode
+     */
+    protected PagedList(List<T> content, Pageable pageable, Long totalElements, CountMode countMode, String nextCursor) {
+        super(content, pageable, totalElements != null ? totalElements : content.size());
+        this.countMode = countMode != null ? countMode : CountMode.EXACT;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements != null ? super.getTotalElements() : null;
+        this.totalPages = totalElements != null ? super.getTotalPages() : null;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    /**
+     * @return cursor for the next page, null on the last page and outside cursor mode
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * In cursor mode this only counts the elements on this page.
+     */
+    @JsonIgnore
+    @Override
+    public long getTotalElements() {
+        return super.getTotalElements();
+    }
+
+    /**
+     * In cursor mode always 1.
+     */
+    @JsonIgnore
+    @Override
+    public int getTotalPages() {
+        return super.getTotalPages();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return isCursorMode() ? nextCursor != null : super.hasNext();
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext();
+    }
+
+    @JsonIgnore
+    public boolean isCursorMode() {
+        return totalElements == null;
+    }
+}
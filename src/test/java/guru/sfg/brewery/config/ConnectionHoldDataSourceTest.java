@@ -0,0 +1,57 @@
+package guru.sfg.brewery.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionHoldDataSourceTest {
+
+    ConnectionHoldDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:connectionhold;DB_CLOSE_DELAY=-1");
+        dataSource = new ConnectionHoldDataSource(h2);
+    }
+
+    @Test
+    void connectionsAreEqualToThemselvesOnly() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            Set<Connection> connections = new HashSet<>();
+            connections.add(first);
+            connections.add(first);
+            connections.add(second);
+
+            assertEquals(first, first);
+            assertNotEquals(first, second);
+            assertEquals(System.identityHashCode(first), first.hashCode());
+            assertEquals(2, connections.size());
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesTheHoldOnce() throws Exception {
+        long open = ConnectionHoldDataSource.openConnections();
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+
+        inner.close();
+        inner.close();
+
+        assertEquals(open + 1, ConnectionHoldDataSource.openConnections());
+
+        outer.close();
+
+        assertEquals(open, ConnectionHoldDataSource.openConnections());
+        assertTrue(ConnectionHoldDataSource.heldNanos() > 0);
+    }
+}
@@ -0,0 +1,38 @@
+package guru.sfg.brewery.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUUIDGeneratorTest {
+
+    @Test
+    void isVersion7WithIetfVariant() {
+        UUID uuid = TimeOrderedUUIDGenerator.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void laterIdsSortAfterEarlierIds() {
+        long now = System.currentTimeMillis();
+
+        UUID earlier = TimeOrderedUUIDGenerator.generate(now);
+        UUID later = TimeOrderedUUIDGenerator.generate(now + 1);
+
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+        assertEquals(now, earlier.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void idsInSameMillisecondAreUnique() {
+        long now = System.currentTimeMillis();
+
+        assertNotEquals(TimeOrderedUUIDGenerator.generate(now), TimeOrderedUUIDGenerator.generate(now));
+    }
+}
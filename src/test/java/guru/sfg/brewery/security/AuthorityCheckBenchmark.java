@@ -0,0 +1,99 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One hasAuthority check as a {@code @PreAuthorize} pays it: a new expression root per invocation, checked
+ * against an admin with every permission, logged in with a {@link PermissionSetAuthenticationToken}. Also the bare
+ * set lookups - the old per call streamed set against the {@link PermissionSet} bit test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AuthorityCheckBenchmark {
+
+    static final String PERMISSION = "order.read";
+
+    User user;
+    Authentication authentication;
+    MethodInvocation invocation;
+    MethodSecurityExpressionHandler standardHandler;
+    MethodSecurityExpressionHandler permissionSetHandler;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Role admin = Role.builder()
+                .name("ADMIN")
+                .authorities(Stream.of("beer", "brewery", "customer", "order")
+                        .flatMap(domain -> Stream.of("create", "read", "update", "delete")
+                                .map(action -> domain + "." + action))
+                        .map(permission -> Authority.builder().permission(permission).build())
+                        .collect(Collectors.toSet()))
+                .build();
+
+        user = User.builder().username("spring").password("guru").role(admin).build();
+        authentication = new PermissionSetAuthenticationToken(user, null, user.getPermissions());
+        invocation = new SimpleMethodInvocation(this, AuthorityCheckBenchmark.class.getMethod("permissionSet"));
+
+        standardHandler = new DefaultMethodSecurityExpressionHandler();
+        permissionSetHandler = new PermissionSetMethodSecurityExpressionHandler();
+    }
+
+    @Benchmark
+    public boolean standardExpressionRoot() {
+        return rootOf(standardHandler).hasAuthority(PERMISSION);
+    }
+
+    @Benchmark
+    public boolean permissionSetExpressionRoot() {
+        return rootOf(permissionSetHandler).hasAuthority(PERMISSION);
+    }
+
+    @Benchmark
+    public boolean streamedAuthorities() {
+        Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(Role::getAuthorities)
+                .flatMap(Set::stream)
+                .map(authority -> new SimpleGrantedAuthority(authority.getPermission()))
+                .collect(Collectors.toSet());
+
+        return authorities.contains(new SimpleGrantedAuthority(PERMISSION));
+    }
+
+    @Benchmark
+    public boolean permissionSet() {
+        return user.getPermissions().has(PERMISSION);
+    }
+
+    private MethodSecurityExpressionOperations rootOf(MethodSecurityExpressionHandler handler) {
+        return (MethodSecurityExpressionOperations) handler.createEvaluationContext(authentication, invocation)
+                .getRootObject().getValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorityCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.repositories.security.LoginFailureRepository;
+import guru.sfg.brewery.repositories.security.LoginFailureRepository.LoginFailureSummary;
+import guru.sfg.brewery.security.LoginFailureCounter.SlidingWindowCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginFailureCounterTest {
+
+    static final long BUCKET_MILLIS = 1000;
+    static final int BUCKETS = 10;
+
+    @Test
+    void countsFailuresWithinWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKETS, BUCKET_MILLIS);
+        long now = 100_000;
+
+        counter.add(now - 5_000, now);
+        counter.add(now - 1_000, now);
+
+        assertEquals(3, counter.add(now, now));
+    }
+
+    @Test
+    void failuresOutsideWindowAreNotCounted() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKETS, BUCKET_MILLIS);
+        long now = 100_000;
+
+        counter.add(now - 20_000, now);
+
+        assertEquals(1, counter.add(now, now));
+    }
+
+    @Test
+    void failuresAgeOutAsWindowSlides() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKETS, BUCKET_MILLIS);
+        long now = 100_000;
+
+        counter.add(now, now);
+        counter.add(now + 2_000, now + 2_000);
+
+        assertEquals(2, counter.total(now + 9_000));
+        assertEquals(1, counter.total(now + 10_000));
+        assertEquals(0, counter.total(now + 12_000));
+    }
+
+    @Test
+    void locksOnceUserIsOverLimit() {
+        LoginFailureCounter loginFailureCounter = loginFailureCounter();
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(loginFailureCounter.recordFailure("spring", "10.0.0." + i));
+        }
+
+        assertTrue(loginFailureCounter.recordFailure("spring", "10.0.0.9"));
+    }
+
+    @Test
+    void sourceIpFailuresThrottleTheIpWithoutLockingAccounts() {
+        LoginFailureCounter loginFailureCounter = loginFailureCounter();
+
+        for (int i = 0; i < 19; i++) {
+            assertFalse(loginFailureCounter.recordFailure("user" + i, "10.0.0.1"));
+        }
+        assertFalse(loginFailureCounter.isThrottled("10.0.0.1"));
+
+        assertFalse(loginFailureCounter.recordFailure("scott", "10.0.0.1"));
+        assertFalse(loginFailureCounter.recordFailure("spring", "10.0.0.1"));
+        assertTrue(loginFailureCounter.isThrottled("10.0.0.1"));
+        assertFalse(loginFailureCounter.isThrottled("10.0.0.2"));
+    }
+
+    @Test
+    void rebuildReadsFailuresAPageAtATime() {
+        LoginFailureRepository loginFailureRepository = mock(LoginFailureRepository.class);
+        List<LoginFailureSummary> fullPage = IntStream.rangeClosed(1, 1000)
+                .mapToObj(id -> failure(id, "spring"))
+                .collect(Collectors.toList());
+        List<LoginFailureSummary> lastPage = List.of(failure(1001, "scott"));
+        when(loginFailureRepository.findAllByCreatedDateIsAfterAndIdGreaterThan(any(), eq(Integer.MIN_VALUE), any()))
+                .thenReturn(fullPage);
+        when(loginFailureRepository.findAllByCreatedDateIsAfterAndIdGreaterThan(any(), eq(1000), any()))
+                .thenReturn(lastPage);
+
+        LoginFailureCounter loginFailureCounter = new LoginFailureCounter(loginFailureRepository,
+                new SimpleMeterRegistry(), 3, 20, Duration.ofHours(24), 1000);
+        loginFailureCounter.rebuild();
+
+        assertEquals(1000, loginFailureCounter.failuresForUsername("spring"));
+        assertEquals(1, loginFailureCounter.failuresForUsername("scott"));
+        verify(loginFailureRepository, times(2)).findAllByCreatedDateIsAfterAndIdGreaterThan(any(), any(), any());
+    }
+
+    private static LoginFailureSummary failure(int id, String username) {
+        LoginFailureSummary failure = mock(LoginFailureSummary.class);
+        when(failure.getId()).thenReturn(id);
+        when(failure.getUsername()).thenReturn(username);
+        when(failure.getCreatedDate()).thenReturn(new Timestamp(System.currentTimeMillis()));
+        return failure;
+    }
+
+    private static LoginFailureCounter loginFailureCounter() {
+        return new LoginFailureCounter(mock(LoginFailureRepository.class), new SimpleMeterRegistry(),
+                3, 20, Duration.ofHours(24), 1000);
+    }
+}
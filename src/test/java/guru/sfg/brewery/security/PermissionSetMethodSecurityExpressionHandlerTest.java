@@ -0,0 +1,63 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.security.PermissionSetMethodSecurityExpressionHandler.PermissionSetExpressionRoot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionSetMethodSecurityExpressionHandlerTest {
+
+    PermissionSetMethodSecurityExpressionHandler handler;
+    User user;
+
+    @BeforeEach
+    void setUp() {
+        handler = new PermissionSetMethodSecurityExpressionHandler();
+
+        Role customer = Role.builder()
+                .name("CUSTOMER")
+                .authorities(Set.of(Authority.builder().permission("beer.read").build(),
+                        Authority.builder().permission("order.read").build()))
+                .build();
+        user = User.builder().username("scott").password("tiger").role(customer).build();
+    }
+
+    @Test
+    void permissionSetAuthoritiesAreBitTested() throws Exception {
+        MethodSecurityExpressionOperations root = rootOf(
+                new PermissionSetAuthenticationToken(user, null, user.getPermissions()));
+
+        assertTrue(root instanceof PermissionSetExpressionRoot);
+        assertTrue(root.hasAuthority("order.read"));
+        assertFalse(root.hasAuthority("order.delete"));
+    }
+
+    @Test
+    void otherAuthoritiesWinOverThePrincipalsPermissions() throws Exception {
+        MethodSecurityExpressionOperations root = rootOf(new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority("beer.read"))));
+
+        assertFalse(root instanceof PermissionSetExpressionRoot);
+        assertTrue(root.hasAuthority("beer.read"));
+        assertFalse(root.hasAuthority("order.read"));
+    }
+
+    private MethodSecurityExpressionOperations rootOf(Authentication authentication) throws NoSuchMethodException {
+        return (MethodSecurityExpressionOperations) handler
+                .createEvaluationContext(authentication, new SimpleMethodInvocation(this, Object.class.getMethod("toString")))
+                .getRootObject().getValue();
+    }
+}
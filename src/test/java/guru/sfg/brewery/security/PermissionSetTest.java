@@ -0,0 +1,66 @@
+package guru.sfg.brewery.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionSetTest {
+
+    @Test
+    void hasGrantedPermissionsOnly() {
+        PermissionSet permissions = PermissionSet.of(List.of("beer.read", "order.read"));
+
+        assertTrue(permissions.has("beer.read"));
+        assertTrue(permissions.hasAny("beer.delete", "order.read"));
+        assertFalse(permissions.has("beer.delete"));
+        assertFalse(permissions.has("never.granted"));
+    }
+
+    @Test
+    void equalPermissionsShareOneInstance() {
+        PermissionSet permissions = PermissionSet.of(List.of("beer.read", "order.read", "beer.read"));
+
+        assertSame(permissions, PermissionSet.of(List.of("order.read", "beer.read")));
+        assertSame(permissions.iterator().next(), PermissionSet.of(List.of("beer.read")).iterator().next());
+        assertEquals(2, permissions.size());
+    }
+
+    @Test
+    void isAnEqualSetOfGrantedAuthorities() {
+        PermissionSet permissions = PermissionSet.of(List.of("beer.read", "order.read"));
+
+        assertEquals(Set.of(new SimpleGrantedAuthority("beer.read"), new SimpleGrantedAuthority("order.read")),
+                permissions);
+        assertTrue(permissions.contains(new SimpleGrantedAuthority("order.read")));
+    }
+
+    @Test
+    void isImmutable() {
+        PermissionSet permissions = PermissionSet.of(List.of("beer.read"));
+
+        assertThrows(UnsupportedOperationException.class, () -> permissions.add(new SimpleGrantedAuthority("beer.delete")));
+        assertThrows(UnsupportedOperationException.class, permissions::clear);
+    }
+
+    @Test
+    void deserializesToInternedInstance() throws Exception {
+        PermissionSet permissions = PermissionSet.of(List.of("customer.read", "customer.update"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(permissions);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(permissions, in.readObject());
+        }
+    }
+}
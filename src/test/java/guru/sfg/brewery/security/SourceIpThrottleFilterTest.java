@@ -0,0 +1,62 @@
+package guru.sfg.brewery.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SourceIpThrottleFilterTest {
+
+    LoginFailureCounter loginFailureCounter;
+    SourceIpThrottleFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loginFailureCounter = mock(LoginFailureCounter.class);
+        when(loginFailureCounter.isThrottled("10.0.0.1")).thenReturn(true);
+        filter = new SourceIpThrottleFilter(loginFailureCounter);
+    }
+
+    @Test
+    void rejectsLoginAttemptsFromThrottledSourceIp() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/beer");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Api-Key", "spring");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void passesRequestsWithoutCredentials() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/beers/find");
+        request.setRemoteAddr("10.0.0.1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void passesLoginAttemptsFromOtherSourceIps() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setRemoteAddr("10.0.0.2");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,65 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    UserPrincipalCache principalCache;
+    AtomicInteger loads;
+    Function<String, User> loader;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new UserPrincipalCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+        loader = username -> {
+            loads.incrementAndGet();
+            return User.builder().username(username).password("{noop}guru").build();
+        };
+    }
+
+    @Test
+    void secondLoadIsServedFromCache() {
+        principalCache.get("spring", loader);
+        principalCache.get("spring", loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void erasingCredentialsDoesNotTouchCachedUser() {
+        principalCache.get("spring", loader).eraseCredentials();
+
+        assertEquals("{noop}guru", principalCache.get("spring", loader).getPassword());
+    }
+
+    @Test
+    void evictForcesReload() {
+        principalCache.get("spring", loader);
+        principalCache.evict("spring");
+        principalCache.get("spring", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void copiesShareOnePermissionSet() {
+        loader = username -> User.builder().username(username)
+                .role(Role.builder().name("CUSTOMER").authority(Authority.builder().permission("beer.read").build()).build())
+                .build();
+
+        assertSame(principalCache.get("spring", loader).getAuthorities(),
+                principalCache.get("spring", loader).getAuthorities());
+    }
+}
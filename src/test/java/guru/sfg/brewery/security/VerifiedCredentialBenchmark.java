@@ -0,0 +1,62 @@
+package guru.sfg.brewery.security;
+
+import guru.sfg.brewery.domain.security.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeat Api-Key/Api-Secret authentication with and without the verified credential cache.
+ * Only the password check differs - the user lookup is an in-memory stub in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VerifiedCredentialBenchmark {
+
+    DaoAuthenticationProvider bcryptEveryRequest;
+    DaoAuthenticationProvider verifiedCredentialCache;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = SfgPasswordEncoderFactories.createDelegatingPasswordEncoder();
+        User user = User.builder().username("spring").password(passwordEncoder.encode("guru")).build();
+
+        bcryptEveryRequest = new DaoAuthenticationProvider();
+        bcryptEveryRequest.setPasswordEncoder(passwordEncoder);
+        bcryptEveryRequest.setUserDetailsService(username -> user.toBuilder().build());
+
+        verifiedCredentialCache = new CachingDaoAuthenticationProvider(
+                new VerifiedCredentialCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
+        verifiedCredentialCache.setPasswordEncoder(passwordEncoder);
+        verifiedCredentialCache.setUserDetailsService(username -> user.toBuilder().build());
+    }
+
+    @Benchmark
+    public Authentication bcryptEveryRequest() {
+        return bcryptEveryRequest.authenticate(new UsernamePasswordAuthenticationToken("spring", "guru"));
+    }
+
+    @Benchmark
+    public Authentication verifiedCredentialCache() {
+        return verifiedCredentialCache.authenticate(new UsernamePasswordAuthenticationToken("spring", "guru"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VerifiedCredentialBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,139 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerPagedList;
+import guru.sfg.brewery.web.model.CountMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BeerCatalogCacheTest {
+
+    BeerCatalogCache beerCatalogCache;
+    UUID beerId;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        beerCatalogCache = new BeerCatalogCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(5));
+        beerId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void repeatedReadsLoadOnce() {
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getById(beerId, true, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictDropsBeerByIdAndUpc() {
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getByUpc("0631234200036", upc -> load(beerId));
+
+        beerCatalogCache.evict(beerId);
+
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getByUpc("0631234200036", upc -> load(beerId));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictDropsCachedPages() {
+        beerCatalogCache.getPage(null, null, 0, 25, CountMode.EXACT, true, this::loadPage);
+
+        beerCatalogCache.evict(beerId);
+
+        beerCatalogCache.getPage(null, null, 0, 25, CountMode.EXACT, true, this::loadPage);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void withAndWithoutInventoryAreCachedApart() {
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getById(beerId, false, this::load);
+        beerCatalogCache.getPage(null, null, 0, 25, CountMode.EXACT, true, this::loadPage);
+        beerCatalogCache.getPage(null, null, 0, 25, CountMode.EXACT, false, this::loadPage);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictDropsBeerWithAndWithoutInventory() {
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getById(beerId, false, this::load);
+
+        beerCatalogCache.evict(beerId);
+
+        beerCatalogCache.getById(beerId, true, this::load);
+        beerCatalogCache.getById(beerId, false, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictInTransactionWaitsForCommitAndRunsOnce() {
+        UUID otherBeerId = UUID.randomUUID();
+        beerCatalogCache.getById(beerId, true, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerCatalogCache.evict(beerId);
+            beerCatalogCache.evict(otherBeerId);
+            beerCatalogCache.evict(beerId);
+
+            beerCatalogCache.getById(beerId, true, this::load);
+            assertEquals(1, loads.get());
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        beerCatalogCache.getById(beerId, true, this::load);
+        assertEquals(2, loads.get());
+        assertFalse(TransactionSynchronizationManager.hasResource(beerCatalogCache));
+    }
+
+    @Test
+    void rolledBackChangeEvictsNothing() {
+        beerCatalogCache.getById(beerId, true, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerCatalogCache.evict(beerId);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        beerCatalogCache.getById(beerId, true, this::load);
+        assertEquals(1, loads.get());
+    }
+
+    private BeerDto load(UUID id) {
+        loads.incrementAndGet();
+        return BeerDto.builder().id(id).upc("0631234200036").build();
+    }
+
+    private BeerPagedList loadPage() {
+        loads.incrementAndGet();
+        return new BeerPagedList(List.of(BeerDto.builder().id(beerId).build()));
+    }
+}
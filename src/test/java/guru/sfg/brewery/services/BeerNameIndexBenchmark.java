@@ -0,0 +1,78 @@
+package guru.sfg.brewery.services;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Name search on a 100k beer catalog for the first page of 25: a blank query (every beer matches), a one letter
+ * query (short of a trigram, every name is checked) and a trigram query. Also the old ranking of the blank query,
+ * which sorted every match with a name lookup per comparison, against the bounded heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BeerNameIndexBenchmark {
+
+    static final int CATALOG_SIZE = 100_000;
+    static final int PAGE_SIZE = 25;
+
+    @Param({"", "a", "beer 12"})
+    String query;
+
+    BeerNameIndex beerNameIndex;
+    Map<UUID, String> names;
+
+    @Setup
+    public void setUp() {
+        String[] styles = {"Lager", "Pilsner", "Stout", "Gose", "Porter", "Ale", "Wheat", "IPA", "Pale Ale", "Saison"};
+        Map<UUID, String> beerNames = new HashMap<>();
+
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            beerNames.put(UUID.randomUUID(), styles[i % styles.length] + " Beer " + i);
+        }
+
+        beerNameIndex = new BeerNameIndex();
+        beerNameIndex.rebuild(beerNames);
+
+        names = beerNames.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toLowerCase(Locale.ROOT)));
+    }
+
+    @Benchmark
+    public NameIndex.Matches firstPage() {
+        return beerNameIndex.search(query, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UUID> fullSortFirstPage() {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+
+        return names.keySet().stream()
+                .filter(beerId -> names.get(beerId).contains(q))
+                .sorted(Comparator.comparingInt((UUID beerId) -> names.get(beerId).indexOf(q))
+                        .thenComparingInt(beerId -> names.get(beerId).length())
+                        .thenComparing(names::get))
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BeerNameIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package guru.sfg.brewery.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BeerNameIndexTest {
+
+    static final UUID MANGO_BOBS = UUID.randomUUID();
+    static final UUID GALAXY_CAT = UUID.randomUUID();
+    static final UUID MANGO = UUID.randomUUID();
+
+    BeerNameIndex beerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        Map<UUID, String> beerNames = new HashMap<>();
+        beerNames.put(MANGO_BOBS, "Mango Bobs");
+        beerNames.put(GALAXY_CAT, "Galaxy Cat");
+        beerNames.put(MANGO, "Mango");
+
+        beerNameIndex = new BeerNameIndex();
+        beerNameIndex.rebuild(beerNames);
+    }
+
+    @Test
+    void findsSubstringIgnoringCase() {
+        assertEquals(Collections.singletonList(GALAXY_CAT), beerNameIndex.search("AXY c", 10).getIds());
+    }
+
+    @Test
+    void ranksPrefixAndShorterNamesFirst() {
+        assertEquals(Arrays.asList(MANGO, MANGO_BOBS), beerNameIndex.search("mango", 10).getIds());
+    }
+
+    @Test
+    void shortQueriesScanAllNames() {
+        assertEquals(Arrays.asList(MANGO, GALAXY_CAT, MANGO_BOBS), beerNameIndex.search("a", 10).getIds());
+    }
+
+    @Test
+    void blankQueryMatchesEveryBeer() {
+        assertEquals(3, beerNameIndex.search(" ", 10).getTotal());
+        assertEquals(3, beerNameIndex.search(null, 10).getTotal());
+    }
+
+    @Test
+    void limitKeepsTheBestMatchesAndCountsThemAll() {
+        NameIndex.Matches matches = beerNameIndex.search("a", 2);
+
+        assertEquals(Arrays.asList(MANGO, GALAXY_CAT), matches.getIds());
+        assertEquals(3, matches.getTotal());
+    }
+
+    @Test
+    void noMatch() {
+        assertTrue(beerNameIndex.search("bobs mango", 10).getIds().isEmpty());
+    }
+
+    @Test
+    void putReplacesTheOldName() {
+        beerNameIndex.put(GALAXY_CAT, "Pinball Porter");
+
+        assertTrue(beerNameIndex.search("galaxy", 10).getIds().isEmpty());
+        assertEquals(Collections.singletonList(GALAXY_CAT), beerNameIndex.search("ball p", 10).getIds());
+    }
+
+    @Test
+    void removedBeersAreNotFound() {
+        beerNameIndex.remove(MANGO);
+
+        assertEquals(Collections.singletonList(MANGO_BOBS), beerNameIndex.search("mango", 10).getIds());
+    }
+}
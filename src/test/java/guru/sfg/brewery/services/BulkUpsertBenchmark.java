@@ -0,0 +1,92 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.BeerUpsertResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk upserts of 10k and 100k beers through BeerService. create uses new UPCs on every call, update sends the
+ * same UPCs again. JMH reports the items counter as items/sec next to the calls per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class BulkUpsertBenchmark {
+
+    @Param({"10000", "100000"})
+    int items;
+
+    @Param({"create", "update"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    int calls;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Upserted {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(SfgBreweryUiApplication.class,
+                "--server.port=0", "--logging.level.guru=warn", "--logging.level.org.hibernate=warn");
+        beerService = context.getBean(BeerService.class);
+
+        beerService.upsertBeers(beers("update").iterator());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerUpsertResult> upsert(Upserted upserted) {
+        List<BeerUpsertResult> results = beerService.upsertBeers(
+                beers("create".equals(mode) ? "create-" + calls++ : "update").iterator());
+
+        upserted.items += items;
+        return results;
+    }
+
+    private List<BeerDto> beers(String upcPrefix) {
+        return IntStream.range(0, items)
+                .mapToObj(i -> BeerDto.builder()
+                        .beerName("Bulk Beer " + i)
+                        .beerStyle(BeerStyleEnum.values()[i % BeerStyleEnum.values().length])
+                        .upc(upcPrefix + "-" + i)
+                        .price(new BigDecimal("12.95"))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkUpsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package guru.sfg.brewery.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerNameIndexTest {
+
+    static final UUID JOHN_DOE = UUID.randomUUID();
+    static final UUID JANE_DOE = UUID.randomUUID();
+    static final UUID TASTING_ROOM = UUID.randomUUID();
+
+    CustomerNameIndex customerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        Map<UUID, String> customerNames = new HashMap<>();
+        customerNames.put(JOHN_DOE, "John Doe");
+        customerNames.put(JANE_DOE, "Jane Doe");
+        customerNames.put(TASTING_ROOM, "Tasting Room");
+
+        customerNameIndex = new CustomerNameIndex();
+        customerNameIndex.rebuild(customerNames);
+    }
+
+    @Test
+    void matchesWordPrefixesOrderedByName() {
+        assertEquals(Arrays.asList(JANE_DOE, JOHN_DOE), customerNameIndex.search("j", 10).getIds());
+        assertEquals(Arrays.asList(JANE_DOE, JOHN_DOE), customerNameIndex.search("DOE", 10).getIds());
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertEquals(Collections.singletonList(JOHN_DOE), customerNameIndex.search("do jo", 10).getIds());
+        assertTrue(customerNameIndex.search("john room", 10).getIds().isEmpty());
+    }
+
+    @Test
+    void doesNotMatchInsideWords() {
+        assertTrue(customerNameIndex.search("oe", 10).getIds().isEmpty());
+    }
+
+    @Test
+    void blankQueryMatchesEveryCustomer() {
+        assertEquals(3, customerNameIndex.search("", 10).getTotal());
+        assertEquals(3, customerNameIndex.search(null, 10).getTotal());
+    }
+
+    @Test
+    void limitKeepsTheFirstByNameAndCountsThemAll() {
+        NameIndex.Matches matches = customerNameIndex.search("", 2);
+
+        assertEquals(Arrays.asList(JANE_DOE, JOHN_DOE), matches.getIds());
+        assertEquals(3, matches.getTotal());
+    }
+
+    @Test
+    void putReplacesTheOldName() {
+        customerNameIndex.put(TASTING_ROOM, "Taproom");
+
+        assertTrue(customerNameIndex.search("room", 10).getIds().isEmpty());
+        assertEquals(Collections.singletonList(TASTING_ROOM), customerNameIndex.search("tap", 10).getIds());
+    }
+
+    @Test
+    void removedCustomersAreNotFound() {
+        customerNameIndex.remove(JOHN_DOE);
+
+        assertEquals(Collections.singletonList(JANE_DOE), customerNameIndex.search("doe", 10).getIds());
+    }
+}
@@ -0,0 +1,97 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerPagedList;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Beer list pages and single beers with showInventoryOnHand false (BeerSummary projection) and true (entity with
+ * quantityOnHand) on a 100k beer catalog. The catalog cache is sized to zero so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ListBeersBenchmark {
+
+    static final int CATALOG_SIZE = 100_000;
+    static final int PAGE_SIZE = 25;
+
+    @Param({"false", "true"})
+    boolean showInventoryOnHand;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    List<UUID> beerIds;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(SfgBreweryUiApplication.class,
+                "--server.port=0", "--logging.level.guru=warn", "--logging.level.org.hibernate=warn",
+                "--sfg.catalog.cache.max-size=0", "--sfg.catalog.cache.page-max-size=0");
+        beerService = context.getBean(BeerService.class);
+        BeerRepository beerRepository = context.getBean(BeerRepository.class);
+
+        for (int chunk = 0; chunk < CATALOG_SIZE; chunk += 1000) {
+            int from = chunk;
+            beerRepository.saveAll(IntStream.range(from, from + 1000)
+                    .mapToObj(i -> Beer.builder()
+                            .beerName("Benchmark Beer " + i)
+                            .beerStyle(BeerStyleEnum.values()[i % BeerStyleEnum.values().length])
+                            .upc("catalog-" + i)
+                            .minOnHand(12)
+                            .quantityToBrew(200)
+                            .price(new BigDecimal("12.95"))
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+
+        beerIds = beerRepository.findAll().stream()
+                .map(Beer::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPagedList listPage() {
+        int page = ThreadLocalRandom.current().nextInt(CATALOG_SIZE / PAGE_SIZE);
+
+        return beerService.listBeers(null, null, PageRequest.of(page, PAGE_SIZE), showInventoryOnHand);
+    }
+
+    @Benchmark
+    public BeerDto findById() {
+        return beerService.findBeerById(beerIds.get(ThreadLocalRandom.current().nextInt(beerIds.size())),
+                showInventoryOnHand);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListBeersBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
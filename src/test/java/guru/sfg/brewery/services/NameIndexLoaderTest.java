@@ -0,0 +1,66 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.BeerSummary;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.CustomerSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NameIndexLoaderTest {
+
+    @Mock
+    BeerRepository beerRepository;
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Test
+    void indexesNamelessBeersAndCustomers() {
+        UUID unnamedBeerId = UUID.randomUUID();
+        UUID mangoBobsId = UUID.randomUUID();
+        UUID unnamedCustomerId = UUID.randomUUID();
+        UUID johnDoeId = UUID.randomUUID();
+        List<BeerSummary> beers = Arrays.asList(beer(unnamedBeerId, null), beer(mangoBobsId, "Mango Bobs"));
+        List<CustomerSummary> customers = Arrays.asList(customer(unnamedCustomerId, null),
+                customer(johnDoeId, "John Doe"));
+        when(beerRepository.findAllSummaries()).thenReturn(beers);
+        when(customerRepository.findAllSummaries()).thenReturn(customers);
+
+        BeerNameIndex beerNameIndex = new BeerNameIndex();
+        CustomerNameIndex customerNameIndex = new CustomerNameIndex();
+        new NameIndexLoader(beerRepository, beerNameIndex, customerRepository, customerNameIndex).load();
+
+        assertEquals(Collections.singletonList(mangoBobsId), beerNameIndex.search("mango", 10).getIds());
+        assertTrue(beerNameIndex.search("", 10).getIds().contains(unnamedBeerId));
+        assertEquals(Collections.singletonList(johnDoeId), customerNameIndex.search("doe", 10).getIds());
+        assertTrue(customerNameIndex.search("", 10).getIds().contains(unnamedCustomerId));
+    }
+
+    private static BeerSummary beer(UUID beerId, String beerName) {
+        BeerSummary summary = mock(BeerSummary.class);
+        when(summary.getId()).thenReturn(beerId);
+        when(summary.getBeerName()).thenReturn(beerName);
+        return summary;
+    }
+
+    private static CustomerSummary customer(UUID customerId, String customerName) {
+        CustomerSummary summary = mock(CustomerSummary.class);
+        when(summary.getId()).thenReturn(customerId);
+        when(summary.getCustomerName()).thenReturn(customerName);
+        return summary;
+    }
+}
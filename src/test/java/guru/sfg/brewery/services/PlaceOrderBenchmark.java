@@ -0,0 +1,87 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.model.BeerOrderDto;
+import guru.sfg.brewery.web.model.BeerOrderLineDto;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Places orders of 1, 50 and 500 lines (each line a different beer) through BeerOrderService against the
+ * in-memory database, so the cost of resolving the order line beers shows up per order size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+    @Param({"1", "50", "500"})
+    int lines;
+
+    ConfigurableApplicationContext context;
+    BeerOrderService beerOrderService;
+    UUID customerId;
+    BeerOrderDto beerOrderDto;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(SfgBreweryUiApplication.class,
+                "--server.port=0", "--logging.level.guru=warn", "--logging.level.org.hibernate=warn");
+        beerOrderService = context.getBean(BeerOrderService.class);
+        customerId = context.getBean(CustomerRepository.class).findAllByCustomerName(DefaultBreweryLoader.TASTING_ROOM)
+                .orElseThrow().getId();
+
+        List<Beer> beers = context.getBean(BeerRepository.class).saveAll(IntStream.range(0, lines)
+                .mapToObj(i -> Beer.builder()
+                        .beerName("Benchmark Beer " + i)
+                        .beerStyle(BeerStyleEnum.IPA)
+                        .upc("bench-" + lines + "-" + i)
+                        .minOnHand(12)
+                        .quantityToBrew(200)
+                        .price(new BigDecimal("12.95"))
+                        .build())
+                .collect(Collectors.toList()));
+
+        beerOrderDto = BeerOrderDto.builder()
+                .customerRef("benchmark")
+                .beerOrderLines(beers.stream()
+                        .map(beer -> BeerOrderLineDto.builder().beerId(beer.getId()).orderQuantity(1).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerOrderDto placeOrder() {
+        return beerOrderService.placeOrder(customerId, beerOrderDto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PlaceOrderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
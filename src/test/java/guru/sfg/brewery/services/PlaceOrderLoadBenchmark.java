@@ -0,0 +1,103 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.model.BeerOrderDto;
+import guru.sfg.brewery.web.model.BeerOrderLineDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sustained order placement from several threads. batchSize=1 is the old one-INSERT-per-row behaviour,
+ * batchSize=50 what application.properties ships with. Besides ops/s JMH reports the orders and lines
+ * counters as orders/sec and lines/sec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class PlaceOrderLoadBenchmark {
+
+    static final int LINES_PER_ORDER = 20;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    BeerOrderService beerOrderService;
+    UUID customerId;
+    BeerOrderDto beerOrderDto;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Placed {
+        public long orders;
+        public long lines;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            orders = 0;
+            lines = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(SfgBreweryUiApplication.class,
+                "--server.port=0", "--logging.level.guru=warn", "--logging.level.org.hibernate=warn",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        beerOrderService = context.getBean(BeerOrderService.class);
+        customerId = context.getBean(CustomerRepository.class).findAllByCustomerName(DefaultBreweryLoader.TASTING_ROOM)
+                .orElseThrow().getId();
+
+        List<UUID> beerIds = context.getBean(BeerRepository.class).findAll().stream()
+                .map(Beer::getId)
+                .collect(Collectors.toList());
+
+        beerOrderDto = BeerOrderDto.builder()
+                .customerRef("load test")
+                .beerOrderLines(IntStream.range(0, LINES_PER_ORDER)
+                        .mapToObj(i -> BeerOrderLineDto.builder()
+                                .beerId(beerIds.get(i % beerIds.size()))
+                                .orderQuantity(1)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerOrderDto placeOrder(Placed placed) {
+        BeerOrderDto placedOrder = beerOrderService.placeOrder(customerId, beerOrderDto);
+
+        placed.orders++;
+        placed.lines += LINES_PER_ORDER;
+        return placedOrder;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PlaceOrderLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
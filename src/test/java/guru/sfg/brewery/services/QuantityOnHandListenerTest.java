@@ -0,0 +1,80 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+import guru.sfg.brewery.repositories.BeerInventoryRepository;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class QuantityOnHandListenerTest {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerInventoryRepository beerInventoryRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void newBeerSavedWithItsInventoryCountsAllOfIt() {
+        UUID beerId = saveBeerWithInventory(30, 12);
+
+        assertEquals(42, beerRepository.findById(beerId).orElseThrow().getQuantityOnHand());
+    }
+
+    @Test
+    void managedBeerSeesTheDifferenceBeforeCommit() {
+        UUID beerId = saveBeerWithInventory(30, 12);
+
+        Integer seenInTransaction = transactionTemplate.execute(status -> {
+            Beer beer = beerRepository.findById(beerId).orElseThrow();
+            beerInventoryRepository.saveAndFlush(BeerInventory.builder().beer(beer).quantityOnHand(8).build());
+            return beer.getQuantityOnHand();
+        });
+
+        assertEquals(50, seenInTransaction);
+        assertEquals(50, beerRepository.findById(beerId).orElseThrow().getQuantityOnHand());
+    }
+
+    private UUID saveBeerWithInventory(int... quantities) {
+        return transactionTemplate.execute(status -> {
+            Set<BeerInventory> inventory = new HashSet<>();
+            Beer beer = Beer.builder()
+                    .beerName("Quantity On Hand")
+                    .beerStyle(BeerStyleEnum.IPA)
+                    .upc(UUID.randomUUID().toString().substring(0, 13))
+                    .price(new BigDecimal("9.99"))
+                    .beerInventory(inventory)
+                    .build();
+
+            for (int quantity : quantities) {
+                inventory.add(BeerInventory.builder().beer(beer).quantityOnHand(quantity).build());
+            }
+
+            return beerRepository.save(beer).getId();
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerOrderLineRepository;
+import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.BeerOrderSummary;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.mappers.BeerMapper;
+import guru.sfg.brewery.web.mappers.BeerOrderLineMapper;
+import guru.sfg.brewery.web.mappers.BeerOrderMapper;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerOrderDto;
+import guru.sfg.brewery.web.model.BeerOrderLineDto;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A 100 beer page and a 25 order page (10 lines each) read as managed entities and mapped, against the
+ * projection queries the read endpoints now use. Both run in a read-only transaction. Run through main to get
+ * the GC profiler's gc.alloc.rate.norm (bytes allocated per call) next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReadProjectionBenchmark {
+
+    static final int BEER_PAGE_SIZE = 100;
+    static final int ORDER_PAGE_SIZE = 25;
+    static final int LINES_PER_ORDER = 10;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnly;
+    BeerRepository beerRepository;
+    BeerOrderRepository beerOrderRepository;
+    BeerOrderLineRepository beerOrderLineRepository;
+    BeerMapper beerMapper;
+    BeerOrderMapper beerOrderMapper;
+    BeerOrderLineMapper beerOrderLineMapper;
+    List<UUID> beerOrderIds;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(SfgBreweryUiApplication.class,
+                "--server.port=0", "--logging.level.guru=warn", "--logging.level.org.hibernate=warn");
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        beerRepository = context.getBean(BeerRepository.class);
+        beerOrderRepository = context.getBean(BeerOrderRepository.class);
+        beerOrderLineRepository = context.getBean(BeerOrderLineRepository.class);
+        beerMapper = context.getBean(BeerMapper.class);
+        beerOrderMapper = context.getBean(BeerOrderMapper.class);
+        beerOrderLineMapper = context.getBean(BeerOrderLineMapper.class);
+
+        List<Beer> beers = beerRepository.saveAll(IntStream.range(0, BEER_PAGE_SIZE)
+                .mapToObj(i -> Beer.builder()
+                        .beerName("Benchmark Beer " + i)
+                        .beerStyle(BeerStyleEnum.IPA)
+                        .upc("projection-" + i)
+                        .minOnHand(12)
+                        .quantityToBrew(200)
+                        .price(new BigDecimal("12.95"))
+                        .build())
+                .collect(Collectors.toList()));
+
+        BeerOrderService beerOrderService = context.getBean(BeerOrderService.class);
+        UUID customerId = context.getBean(CustomerRepository.class).findAllByCustomerName(DefaultBreweryLoader.TASTING_ROOM)
+                .orElseThrow().getId();
+        BeerOrderDto beerOrderDto = BeerOrderDto.builder()
+                .customerRef("benchmark")
+                .beerOrderLines(beers.subList(0, LINES_PER_ORDER).stream()
+                        .map(beer -> BeerOrderLineDto.builder().beerId(beer.getId()).orderQuantity(1).build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        beerOrderIds = IntStream.range(0, ORDER_PAGE_SIZE)
+                .mapToObj(i -> beerOrderService.placeOrder(customerId, beerOrderDto).getId())
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerDto> beerPageEntities() {
+        return readOnly.execute(status -> beerRepository.findAll(PageRequest.of(0, BEER_PAGE_SIZE)).stream()
+                .map(beerMapper::beerToBeerDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BeerDto> beerPageProjection() {
+        return readOnly.execute(status -> beerRepository.findDetailPageByFilter(null, null, PageRequest.of(0, BEER_PAGE_SIZE))
+                .map(beerMapper::beerDetailToBeerDto)
+                .getContent());
+    }
+
+    @Benchmark
+    public List<BeerOrderDto> orderPageEntities() {
+        return readOnly.execute(status -> beerOrderRepository.findAllById(beerOrderIds).stream()
+                .map(beerOrderMapper::beerOrderToDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BeerOrderDto> orderPageProjection() {
+        return readOnly.execute(status -> {
+            Map<UUID, BeerOrderDto> beerOrders = beerOrderRepository.findSummariesByIdIn(beerOrderIds).stream()
+                    .collect(Collectors.toMap(BeerOrderSummary::getId, beerOrderMapper::beerOrderSummaryToDto));
+            beerOrders.values().forEach(beerOrder -> beerOrder.setBeerOrderLines(new ArrayList<>()));
+            beerOrderLineRepository.findSummariesByBeerOrderIdIn(beerOrderIds).forEach(line ->
+                    beerOrders.get(line.getBeerOrderId()).getBeerOrderLines()
+                            .add(beerOrderLineMapper.beerOrderLineSummaryToDto(line)));
+
+            return new ArrayList<>(beerOrders.values());
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReadProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
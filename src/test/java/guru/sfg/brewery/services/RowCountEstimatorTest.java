@@ -0,0 +1,58 @@
+package guru.sfg.brewery.services;
+
+import guru.sfg.brewery.web.model.CountMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RowCountEstimatorTest {
+
+    RowCountEstimator rowCountEstimator;
+
+    @BeforeEach
+    void setUp() {
+        rowCountEstimator = new RowCountEstimator(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void exactModeUsesPageTotal() {
+        PageImpl<String> page = new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 42);
+
+        assertEquals(42, rowCountEstimator.total(page, CountMode.EXACT, "list", List.of(), () -> 0));
+    }
+
+    @Test
+    void noneModeCountsRowsSeenPlusOneWhenThereIsMore() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true);
+
+        assertEquals(9, rowCountEstimator.total(slice, CountMode.NONE, "list", List.of(), () -> 1000));
+    }
+
+    @Test
+    void lastSliceIsExactInEveryMode() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a"), PageRequest.of(3, 2), false);
+
+        assertEquals(7, rowCountEstimator.total(slice, CountMode.ESTIMATED, "list", List.of(), () -> 1000));
+    }
+
+    @Test
+    void estimatedModeCountsOncePerFilter() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+        AtomicInteger counted = new AtomicInteger();
+
+        rowCountEstimator.total(slice, CountMode.ESTIMATED, "list", List.of("x"), () -> counted.incrementAndGet() * 100);
+        long total = rowCountEstimator.total(slice, CountMode.ESTIMATED, "list", List.of("x"), () -> counted.incrementAndGet() * 100);
+
+        assertEquals(100, total);
+        assertEquals(1, counted.get());
+    }
+}
@@ -2,6 +2,7 @@ package guru.sfg.brewery.web.controllers;
 
 import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.repositories.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,12 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -22,6 +29,9 @@ public class BeerControllerIT extends BaseIT {
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @DisplayName("Init New Form")
     @Nested
     class InitNewForm{
@@ -99,6 +109,20 @@ public class BeerControllerIT extends BaseIT {
                     .andExpect(model().attributeExists("beer"));
         }
 
+        @Test
+        void getBeerByIdReturnsConnectionBeforeRendering() throws Exception{
+            Beer beer = beerRepository.findAll().get(0);
+
+            mockMvc.perform(get("/beers/" + beer.getId())
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attribute("beer", hasProperty("beerInventory", notNullValue())));
+
+            assertNull(meterRegistry.find("http.connection.open.at.render").tag("uri", "/beers/{beerId}").counter());
+            assertEquals(0, meterRegistry.get("http.connection.hold")
+                    .tags("uri", "/beers/{beerId}", "phase", "render").timer().max(TimeUnit.NANOSECONDS));
+        }
+
         @Test
         void getBeerByIdNoAuth() throws Exception{
             Beer beer = beerRepository.findAll().get(0);
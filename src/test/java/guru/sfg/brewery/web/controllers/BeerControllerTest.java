@@ -98,7 +98,7 @@ class BeerControllerTest {
     @Test
     void showBeer() throws Exception{
 
-        when(beerRepository.findById(uuid)).thenReturn(Optional.of(Beer.builder().id(uuid).build()));
+        when(beerRepository.findWithInventoryById(uuid)).thenReturn(Optional.of(Beer.builder().id(uuid).build()));
         mockMvc.perform(get("/beers/"+uuid))
                 .andExpect(status().isOk())
                 .andExpect(view().name("beers/beerDetails"))
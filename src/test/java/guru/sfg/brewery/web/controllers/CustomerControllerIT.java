@@ -8,11 +8,14 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 @SpringBootTest
 public class CustomerControllerIT extends BaseIT {
@@ -35,6 +38,22 @@ public class CustomerControllerIT extends BaseIT {
                     .andExpect(status().isForbidden());
         }
 
+        @Test
+        void testFindOneCustomerRedirects() throws Exception {
+            mockMvc.perform(get("/customers").param("customerName", "tast")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().is3xxRedirection());
+        }
+
+        @Test
+        void testFindManyCustomers() throws Exception {
+            mockMvc.perform(get("/customers").param("customerName", "dist")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("customers/customerList"))
+                    .andExpect(model().attribute("selections", hasSize(3)));
+        }
+
         @Test
         void testListCustomersNOTLOGGEDIN() throws Exception {
             mockMvc.perform(get("/customers"))
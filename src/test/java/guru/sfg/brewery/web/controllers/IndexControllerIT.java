@@ -3,9 +3,11 @@ package guru.sfg.brewery.web.controllers;
 import guru.sfg.brewery.repositories.BeerInventoryRepository;
 import guru.sfg.brewery.repositories.BeerRepository;
 import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.services.BeerNameIndex;
 import guru.sfg.brewery.services.BeerOrderService;
 import guru.sfg.brewery.services.BeerService;
 import guru.sfg.brewery.services.BreweryService;
+import guru.sfg.brewery.services.CustomerService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -34,6 +36,12 @@ public class IndexControllerIT extends BaseIT {
     @MockBean
     BeerOrderService beerOrderService;
 
+    @MockBean
+    BeerNameIndex beerNameIndex;
+
+    @MockBean
+    CustomerService customerService;
+
     @Test
     void testGetIndexSlash() throws Exception {
         mockMvc.perform(get("/"))
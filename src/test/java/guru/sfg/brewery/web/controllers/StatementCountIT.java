@@ -0,0 +1,212 @@
+package guru.sfg.brewery.web.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.QueryCountInspector;
+import guru.sfg.brewery.security.UserPrincipalCache;
+import guru.sfg.brewery.services.BeerCatalogCache;
+import guru.sfg.brewery.web.model.BeerDto;
+import guru.sfg.brewery.web.model.BeerOrderDto;
+import guru.sfg.brewery.web.model.BeerOrderLineDto;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements Hibernate prepares per endpoint, counted by QueryCountInspector on the request thread (MockMvc runs
+ * the request on the test thread). The principal is loaded once up front, so apart from the authentication test
+ * the counts are the endpoint's own. A failure here means an endpoint's fetch plan grew.
+ *
+ * Writes run in a test transaction that is rolled back, the statements are flushed within the request all the same.
+ */
+@SpringBootTest
+public class StatementCountIT extends BaseIT {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    BeerCatalogCache beerCatalogCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    UUID customerId;
+
+    @BeforeEach
+    void loadPrincipal() throws Exception {
+        customerId = customerRepository.findAllByCustomerName(DefaultBreweryLoader.TASTING_ROOM).orElseThrow().getId();
+
+        mockMvc.perform(get("/beers/find").with(httpBasic("spring", "guru")))
+                .andExpect(status().isOk());
+
+        // evicting any beer drops every cached page, so beer lists are counted as a cache miss
+        beerCatalogCache.evict(beerRepository.findAll().get(0).getId());
+    }
+
+    @Test
+    void authenticationLoadsUserRolesAuthoritiesAndCustomerInOneStatement() throws Exception {
+        userPrincipalCache.evict("spring");
+
+        assertStatements(1, get("/beers/find"));
+    }
+
+    @Test
+    void beerDetails() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        assertStatements(1, get("/beers/" + beer.getId()));
+    }
+
+    @Test
+    void findBeers() throws Exception {
+        assertStatements(1, get("/beers").param("beerName", "a"));
+    }
+
+    @Test
+    void customerDetails() throws Exception {
+        assertStatements(1, get("/customers/" + customerId));
+    }
+
+    @Test
+    void listBreweries() throws Exception {
+        assertStatements(1, get("/brewery/breweries"));
+    }
+
+    @Test
+    void getBeerById() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        assertStatements(1, get("/api/v1/beer/" + beer.getId()).param("showInventoryOnHand", "true"));
+    }
+
+    @Test
+    void listOrders() throws Exception {
+        // customer exists, order ids, count, orders, lines
+        assertStatements(5, get("/api/v1/customers/" + customerId + "/orders"));
+    }
+
+    @Test
+    void getOrder() throws Exception {
+        UUID orderId = beerOrderRepository.findAllIdsByCustomerId(customerId, PageRequest.of(0, 1)).getContent().get(0);
+
+        assertStatements(1, get("/api/v1/customers/" + customerId + "/orders/" + orderId));
+    }
+
+    @Test
+    void listBeers() throws Exception {
+        // page, count
+        assertStatements(2, get("/api/v1/beer").param("pageSize", "2"));
+    }
+
+    @Test
+    void listBeersByKeyset() throws Exception {
+        assertStatements(1, get("/api/v1/beer").param("cursor", "").param("pageSize", "2"));
+    }
+
+    @Test
+    void listBeersWithoutCount() throws Exception {
+        assertStatements(1, get("/api/v1/beer").param("pageSize", "2").param("countMode", "none"));
+    }
+
+    @Test
+    void listBeersWithEstimatedCount() throws Exception {
+        // page, and the count until the estimate for the filter is cached
+        assertStatements(2, get("/api/v1/beer").param("pageSize", "2").param("countMode", "estimated"));
+    }
+
+    @Test
+    void searchCustomers() throws Exception {
+        // the name index finds the page, one query loads it
+        assertStatements(1, get("/customers").param("customerName", "a"));
+    }
+
+    @Transactional
+    @Test
+    void placeOrder() throws Exception {
+        List<Beer> beers = beerRepository.findAll(PageRequest.of(0, 3)).getContent();
+        BeerOrderDto beerOrder = BeerOrderDto.builder()
+                .customerRef("statement count")
+                .beerOrderLines(beers.stream()
+                        .map(beer -> BeerOrderLineDto.builder().beerId(beer.getId()).orderQuantity(1).build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        // customer, then the order and its lines, one insert batch each
+        assertStatements(3, post("/api/v1/customers/" + customerId + "/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(beerOrder)));
+    }
+
+    @Transactional
+    @Test
+    void pickupOrder() throws Exception {
+        UUID orderId = beerOrderRepository.findAllIdsByCustomerId(customerId, PageRequest.of(0, 1)).getContent().get(0);
+
+        // one conditional update
+        assertStatements(1, put("/api/v1/customers/" + customerId + "/orders/" + orderId + "/pickup"));
+    }
+
+    @Transactional
+    @Test
+    void bulkUpsertBeers() throws Exception {
+        Beer existing = beerRepository.findAll().get(0);
+        List<BeerDto> beers = List.of(
+                BeerDto.builder().beerName(existing.getBeerName()).beerStyle(existing.getBeerStyle())
+                        .upc(existing.getUpc()).price(new BigDecimal("9.99")).build(),
+                BeerDto.builder().beerName("Statement Count Ale").beerStyle(BeerStyleEnum.ALE)
+                        .upc("0009998887770").price(new BigDecimal("8.99")).build());
+
+        // existing beers by upc, then one batch of updates and one of inserts
+        assertStatements(3, post("/api/v1/beer/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(beers)));
+    }
+
+    @Test
+    void exportOrders() throws Exception {
+        // orders, then their lines, per chunk
+        assertStatements(2, get("/api/v2/orders/export"));
+    }
+
+    private void assertStatements(long max, MockHttpServletRequestBuilder request) throws Exception {
+        long before = QueryCountInspector.count();
+
+        mockMvc.perform(request.with(httpBasic("spring", "guru")))
+                .andExpect(status().is2xxSuccessful());
+
+        long statements = QueryCountInspector.count() - before;
+        assertTrue(statements <= max, "expected at most " + max + " statements, was " + statements);
+    }
+}
@@ -186,6 +186,30 @@ class BeerOrderControllerTest extends BaseIT {
                 .andExpect(status().isForbidden());
     }
 
+    @WithUserDetails("spring")
+    @Test
+    void getByOrderIdNotFound() throws Exception {
+        mockMvc.perform(get(API_ROOT + stPeteCustomer.getId() + "/orders/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @WithUserDetails("spring")
+    @Test
+    void getByOrderIdCustomerNotFound() throws Exception {
+        mockMvc.perform(get(API_ROOT + UUID.randomUUID() + "/orders/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Transactional
+    @WithUserDetails("spring")
+    @Test
+    void getByOrderIdOfOtherCustomerNotFound() throws Exception {
+        BeerOrder beerOrder = stPeteCustomer.getBeerOrders().stream().findFirst().orElseThrow();
+
+        mockMvc.perform(get(API_ROOT + dunedinCustomer.getId() + "/orders/" + beerOrder.getId()))
+                .andExpect(status().isNotFound());
+    }
+
     @Transactional
     @Test
     void pickUpOrderNotAuth() throws Exception {
@@ -226,6 +250,37 @@ class BeerOrderControllerTest extends BaseIT {
                 .andExpect(status().isForbidden());
     }
 
+    @Transactional
+    @WithUserDetails("spring")
+    @Test
+    void pickUpOrderTwiceConflict() throws Exception {
+        BeerOrder beerOrder = stPeteCustomer.getBeerOrders().stream().findFirst().orElseThrow();
+
+        mockMvc.perform(put(API_ROOT + stPeteCustomer.getId() + "/orders/" + beerOrder.getId() + "/pickup"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(put(API_ROOT + stPeteCustomer.getId() + "/orders/" + beerOrder.getId() + "/pickup"))
+                .andExpect(status().isConflict());
+    }
+
+    @Transactional
+    @WithUserDetails("spring")
+    @Test
+    void pickUpOrderNotFound() throws Exception {
+        mockMvc.perform(put(API_ROOT + stPeteCustomer.getId() + "/orders/" + UUID.randomUUID() + "/pickup"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Transactional
+    @WithUserDetails("spring")
+    @Test
+    void pickUpOrderOfOtherCustomerNotFound() throws Exception {
+        BeerOrder beerOrder = stPeteCustomer.getBeerOrders().stream().findFirst().orElseThrow();
+
+        mockMvc.perform(put(API_ROOT + dunedinCustomer.getId() + "/orders/" + beerOrder.getId() + "/pickup"))
+                .andExpect(status().isNotFound());
+    }
+
     private BeerOrderDto buildOrderDto(Customer customer, UUID beerId) {
         List<BeerOrderLineDto> orderLines = Arrays.asList(BeerOrderLineDto.builder()
                 .id(UUID.randomUUID())
@@ -18,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -115,4 +117,42 @@ class BeerOrderControllerV2Test extends BaseIT {
         mockMvc.perform(get(API_ROOT + beerOrder.getId()))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportOrdersNotAuth() throws Exception {
+        mockMvc.perform(get(API_ROOT + "export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @WithUserDetails("spring")
+    @Test
+    void exportOrdersADMIN() throws Exception {
+        String export = mockMvc.perform(get(API_ROOT + "export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(beerOrderRepository.count(), export.lines().count());
+    }
+
+    @WithUserDetails(DefaultBreweryLoader.STPETE_USER)
+    @Test
+    void exportOrdersCustomerOnlyOwn() throws Exception {
+        String export = mockMvc.perform(get(API_ROOT + "export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(beerOrderRepository.countByCustomerId(stPeteCustomer.getId()), export.lines().count());
+    }
+
+    @WithUserDetails("spring")
+    @Test
+    void exportOrdersByStatus() throws Exception {
+        String export = mockMvc.perform(get(API_ROOT + "export").param("status", "PICKED_UP"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(beerOrderRepository.findAllByOrderStatus(guru.sfg.brewery.domain.OrderStatusEnum.PICKED_UP).size(),
+                export.lines().count());
+    }
+}
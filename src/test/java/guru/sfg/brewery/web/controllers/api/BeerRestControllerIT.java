@@ -11,12 +11,18 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 
 import java.util.Random;
+import java.util.UUID;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 //@WebMvcTest
@@ -77,6 +83,26 @@ public class BeerRestControllerIT extends BaseIT {
             mockMvc.perform(get("/api/v1/beer/").with(httpBasic(user, pwd)))
                     .andExpect(status().isOk());
         }
+
+        @Test
+        void findBeersCursorPageIsNotLastWhileThereIsANextCursor() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/").param("cursor", "").param("pageSize", "2")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                    .andExpect(jsonPath("$.last").value(false))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andExpect(jsonPath("$.totalPages").doesNotExist());
+        }
+
+        @Test
+        void findBeersCountedPageReportsTotals() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/").param("pageSize", "2")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").isNumber())
+                    .andExpect(jsonPath("$.last").value(false));
+        }
     }
 
     @DisplayName("Get Beer By ID")
@@ -118,4 +144,161 @@ public class BeerRestControllerIT extends BaseIT {
                     .andExpect(status().isOk());
         }
     }
+
+    @Nested
+    @DisplayName("Search Beers")
+    class SearchBeers {
+        @Test
+        void searchBeersNoAuth() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/search").param("q", "mango"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void searchBeersByName() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/search").param("q", "MANGO b")
+                            .with(httpBasic("scott", "tiger")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].beerName").value("Mango Bobs"));
+        }
+
+        @Test
+        void searchBeersFindsNewBeer() throws Exception {
+            String beerName = "Search Beer " + new Random().nextInt(99999999);
+            Beer beer = beerRepository.saveAndFlush(Beer.builder()
+                    .beerName(beerName)
+                    .beerStyle(BeerStyleEnum.IPA)
+                    .upc("search-" + new Random().nextInt(99999999))
+                    .build());
+
+            mockMvc.perform(get("/api/v1/beer/search").param("q", beerName.substring(2))
+                            .param("pageSize", "1")
+                            .with(httpBasic("scott", "tiger")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(beer.getId().toString()))
+                    .andExpect(jsonPath("$.totalElements").value(1));
+        }
+
+        @Test
+        void searchBeersNoMatch() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/search").param("q", "no such beer")
+                            .with(httpBasic("scott", "tiger")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Upsert")
+    class BulkUpsert {
+        @Test
+        void upsertBeersNoAuth() throws Exception {
+            mockMvc.perform(post("/api/v1/beer/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void upsertBeersNotAdmin() throws Exception {
+            mockMvc.perform(post("/api/v1/beer/bulk").contentType(MediaType.APPLICATION_JSON).content("[]")
+                            .with(httpBasic("scott", "tiger")))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void upsertBeersNdjson() throws Exception {
+            String newUpc = "bulk-" + new Random().nextInt(99999999);
+            Beer existing = beerRepository.saveAndFlush(Beer.builder()
+                    .beerName("Bulk Existing Beer")
+                    .beerStyle(BeerStyleEnum.ALE)
+                    .upc("bulk-" + new Random().nextInt(99999999))
+                    .build());
+
+            mockMvc.perform(post("/api/v1/beer/bulk")
+                            .contentType("application/x-ndjson")
+                            .content("{\"beerName\":\"Bulk Beer\",\"beerStyle\":\"IPA\",\"upc\":\"" + newUpc + "\",\"price\":\"9.99\"}\n" +
+                                    "{\"beerName\":\"Bulk Renamed Beer\",\"beerStyle\":\"ALE\",\"upc\":\"" + existing.getUpc() + "\"}\n" +
+                                    "{\"beerName\":\"No UPC\"}\n")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$[1].status").value("UPDATED"))
+                    .andExpect(jsonPath("$[1].beerId").value(existing.getId().toString()))
+                    .andExpect(jsonPath("$[2].status").value("REJECTED"));
+
+            assertEquals("Bulk Beer", beerRepository.findByUpc(newUpc).getBeerName());
+            assertEquals("Bulk Renamed Beer", beerRepository.findByUpc(existing.getUpc()).getBeerName());
+        }
+
+        @Test
+        void upsertBeersJsonArray() throws Exception {
+            String newUpc = "bulk-" + new Random().nextInt(99999999);
+
+            mockMvc.perform(post("/api/v1/beer/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"beerName\":\"Bulk Beer\",\"beerStyle\":\"IPA\",\"upc\":\"" + newUpc + "\"}]")
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].index").value(0))
+                    .andExpect(jsonPath("$[0].status").value("CREATED"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Beer")
+    class UpdateBeer {
+        Beer beerToUpdate() {
+            return beerRepository.saveAndFlush(Beer.builder()
+                    .beerName("Update Me Beer")
+                    .beerStyle(BeerStyleEnum.IPA)
+                    .upc("update-" + new Random().nextInt(99999999))
+                    .build());
+        }
+
+        String body(Beer beer, Long version) {
+            return "{\"beerName\":\"Updated Beer\",\"beerStyle\":\"ALE\",\"upc\":\"" + beer.getUpc() + "\"" +
+                    (version == null ? "" : ",\"version\":" + version) + "}";
+        }
+
+        @Test
+        void updateBeerCurrentVersion() throws Exception {
+            Beer beer = beerToUpdate();
+
+            mockMvc.perform(put("/api/v1/beer/" + beer.getId())
+                            .contentType(MediaType.APPLICATION_JSON).content(body(beer, beer.getVersion()))
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isNoContent());
+
+            Beer updated = beerRepository.findById(beer.getId()).orElseThrow();
+            assertEquals("Updated Beer", updated.getBeerName());
+            assertEquals(beer.getVersion() + 1, updated.getVersion());
+        }
+
+        @Test
+        void updateBeerStaleVersion() throws Exception {
+            Beer beer = beerToUpdate();
+
+            mockMvc.perform(put("/api/v1/beer/" + beer.getId())
+                            .contentType(MediaType.APPLICATION_JSON).content(body(beer, beer.getVersion() + 1))
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        void updateBeerWithoutVersion() throws Exception {
+            Beer beer = beerToUpdate();
+
+            mockMvc.perform(put("/api/v1/beer/" + beer.getId())
+                            .contentType(MediaType.APPLICATION_JSON).content(body(beer, null))
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isNoContent());
+        }
+
+        @Test
+        void updateBeerNotFound() throws Exception {
+            mockMvc.perform(put("/api/v1/beer/" + UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON).content(body(beerToUpdate(), 0L))
+                            .with(httpBasic("spring", "guru")))
+                    .andExpect(status().isNotFound());
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package guru.sfg.brewery.web.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(Timestamp.from(Instant.parse("2020-07-07T10:15:30.123456789Z")),
+                UUID.randomUUID());
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void emptyCursorStartsAtBeginning() {
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(""));
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+}